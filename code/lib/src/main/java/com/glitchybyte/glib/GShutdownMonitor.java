@@ -4,11 +4,16 @@
 package com.glitchybyte.glib;
 
 import com.glitchybyte.glib.concurrent.GLock;
+import com.glitchybyte.glib.log.GLog;
 import sun.misc.Signal;
 
 import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.HashSet;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
@@ -22,6 +27,7 @@ public final class GShutdownMonitor {
     private static final AtomicBoolean generalShutdownInitiated = new AtomicBoolean(false);
     private static final Lock generalShutdownLock = new ReentrantLock();
     private static final Collection<GShutdownMonitor> shutdownMonitors = new HashSet<>();
+    private static final ShutdownActions shutdownActions = new ShutdownActions();
 
     /**
      * Creates a monitor that will get notified when it's time for an orderly shutdown.
@@ -42,10 +48,37 @@ public final class GShutdownMonitor {
         }
     }
 
+    /**
+     * Registers an action to run when a shutdown is signaled, before
+     * monitors are notified. That way, code waiting on a monitor finds the
+     * actions done when it wakes.
+     *
+     * <p>Actions run one after the other in reverse order of registration,
+     * so an action registered after the ones it depends on runs before them.
+     * If a shutdown has already been signaled, the action runs right away.
+     *
+     * @param action Action to run.
+     */
+    public static void addShutdownAction(final Runnable action) {
+        shutdownActions.add(action);
+    }
+
+    /**
+     * Unregisters an action, so it doesn't run nor is kept alive until
+     * shutdown.
+     *
+     * @param action Action given to {@link #addShutdownAction(Runnable)}.
+     * @return True if the action was registered and hadn't run.
+     */
+    public static boolean removeShutdownAction(final Runnable action) {
+        return shutdownActions.remove(action);
+    }
+
     private static void triggerShutdown(final Signal signal) {
         if (!generalShutdownInitiated.compareAndSet(false, true)) {
             return;
         }
+        shutdownActions.runAll();
         GLock.locked(generalShutdownLock, () -> {
             shutdownMonitors.forEach(GShutdownMonitor::shutdown);
             shutdownMonitors.clear();
@@ -133,4 +166,74 @@ public final class GShutdownMonitor {
             awaitShutdown(cadence);
         }
     }
+
+    /**
+     * Actions to run once, on shutdown, in reverse order of registration.
+     */
+    static final class ShutdownActions {
+
+        private final Lock lock = new ReentrantLock();
+        private final Deque<Runnable> actions = new ArrayDeque<>();
+        private boolean hasRun = false;
+
+        /**
+         * Creates an empty set of actions.
+         */
+        ShutdownActions() {
+            // Nothing to set up.
+        }
+
+        /**
+         * Registers an action. If the actions have already run, it runs
+         * right away.
+         *
+         * @param action Action to run.
+         */
+        public void add(final Runnable action) {
+            final boolean isLate = GLock.lockedResult(lock, () -> {
+                if (hasRun) {
+                    return true;
+                }
+                actions.push(action);
+                return false;
+            });
+            if (isLate) {
+                run(action);
+            }
+        }
+
+        /**
+         * Unregisters an action.
+         *
+         * @param action Action to unregister.
+         * @return True if the action was registered and hadn't run.
+         */
+        public boolean remove(final Runnable action) {
+            return GLock.lockedResult(lock, () -> actions.removeFirstOccurrence(action));
+        }
+
+        /**
+         * Runs the registered actions, newest first. Only the first call runs
+         * them.
+         */
+        public void runAll() {
+            final List<Runnable> pending = new ArrayList<>();
+            GLock.locked(lock, () -> {
+                hasRun = true;
+                pending.addAll(actions);
+                actions.clear();
+            });
+            // Run outside the lock, so actions can register or unregister others.
+            pending.forEach(ShutdownActions::run);
+        }
+
+        private static void run(final Runnable action) {
+            try {
+                action.run();
+            } catch (final RuntimeException e) {
+                // One failing action must not keep the rest from running.
+                GLog.severe(e);
+            }
+        }
+    }
 }
@@ -0,0 +1,151 @@
+// Copyright 2024 GlitchyByte
+// SPDX-License-Identifier: Apache-2.0
+
+package com.glitchybyte.glib.concurrent;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hill-climbing controller that sizes a {@link ThreadPoolExecutor} at
+ * runtime.
+ *
+ * <p>Every sample interval the controller measures task throughput and the
+ * blocking ratio of the tasks that ran (the fraction of wall time not spent
+ * on CPU). While there is a backlog it moves the pool size one thread at a
+ * time in the current direction, and reverses direction when the last move
+ * made throughput worse. The blocking ratio caps growth: CPU-bound work is
+ * not given many more threads than cores, while I/O-bound work is allowed to
+ * grow. When there is no backlog, idle threads are released.
+ *
+ * <p>The pool size always stays within the configured bounds.
+ */
+final class GAdaptivePoolController implements AutoCloseable {
+
+    private static final Duration SAMPLE_INTERVAL = Duration.ofMillis(500);
+    private static final double THROUGHPUT_TOLERANCE = 0.05;
+    private static final double MIN_CPU_RATIO = 0.01;
+    private static final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+    private final ThreadPoolExecutor pool;
+    private final int minThreadCount;
+    private final int maxThreadCount;
+    private final Duration sampleInterval;
+    private final int processorCount = Runtime.getRuntime().availableProcessors();
+    private final boolean measureCpuTime;
+    private final LongAdder wallNanos = new LongAdder();
+    private final LongAdder cpuNanos = new LongAdder();
+    private final Thread controllerThread;
+    private long lastSampleTime;
+    private long lastCompletedCount = 0;
+    private double lastThroughput = 0;
+    private int direction = 1;
+
+    /**
+     * Creates a controller for the given pool and starts sampling.
+     *
+     * @param pool Pool to size. Its maximum pool size must be at least {@code maxThreadCount}.
+     * @param minThreadCount Minimum thread count.
+     * @param maxThreadCount Maximum thread count.
+     */
+    GAdaptivePoolController(final ThreadPoolExecutor pool, final int minThreadCount, final int maxThreadCount) {
+        this(pool, minThreadCount, maxThreadCount, SAMPLE_INTERVAL);
+    }
+
+    /**
+     * Creates a controller for the given pool and starts sampling at the
+     * given interval.
+     *
+     * @param pool Pool to size. Its maximum pool size must be at least {@code maxThreadCount}.
+     * @param minThreadCount Minimum thread count.
+     * @param maxThreadCount Maximum thread count.
+     * @param sampleInterval Time between adjustments.
+     */
+    GAdaptivePoolController(final ThreadPoolExecutor pool, final int minThreadCount, final int maxThreadCount,
+            final Duration sampleInterval) {
+        this.pool = pool;
+        this.minThreadCount = minThreadCount;
+        this.maxThreadCount = maxThreadCount;
+        this.sampleInterval = sampleInterval;
+        measureCpuTime = threadBean.isCurrentThreadCpuTimeSupported() && threadBean.isThreadCpuTimeEnabled();
+        lastSampleTime = System.nanoTime();
+        controllerThread = Thread.ofPlatform()
+                .daemon()
+                .name("Task-adaptive")
+                .start(this::sampleLoop);
+    }
+
+    @Override
+    public void close() {
+        controllerThread.interrupt();
+    }
+
+    /**
+     * Wraps a {@link Runnable} so its wall and CPU time feed the controller.
+     *
+     * @param runnable {@link Runnable} to wrap.
+     * @return A wrapped {@link Runnable}.
+     */
+    Runnable wrap(final Runnable runnable) {
+        return () -> {
+            final long startedAt = System.nanoTime();
+            final long cpuStartedAt = measureCpuTime ? threadBean.getCurrentThreadCpuTime() : 0;
+            try {
+                runnable.run();
+            } finally {
+                wallNanos.add(System.nanoTime() - startedAt);
+                if (measureCpuTime) {
+                    cpuNanos.add(threadBean.getCurrentThreadCpuTime() - cpuStartedAt);
+                }
+            }
+        };
+    }
+
+    private void sampleLoop() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Thread.sleep(sampleInterval);
+                adjust();
+            }
+        } catch (final InterruptedException e) {
+            // Exiting!
+        }
+    }
+
+    /**
+     * Samples the pool and moves its size. Called every sample interval.
+     */
+    void adjust() {
+        final long now = System.nanoTime();
+        final long completedCount = pool.getCompletedTaskCount();
+        final double throughput = (completedCount - lastCompletedCount) * 1e9 / Math.max(now - lastSampleTime, 1);
+        lastSampleTime = now;
+        lastCompletedCount = completedCount;
+        final long wall = wallNanos.sumThenReset();
+        final long cpu = cpuNanos.sumThenReset();
+        final double blockingRatio = (!measureCpuTime || (wall == 0)) ? 0 :
+                Math.min(Math.max(1 - ((double) cpu / wall), 0), 1);
+        final int current = pool.getCorePoolSize();
+        final int target;
+        if (pool.getQueue().isEmpty()) {
+            // No backlog. Release a thread if some are idle.
+            target = pool.getActiveCount() < current ? current - 1 : current;
+            direction = 1;
+        } else {
+            if (throughput < (lastThroughput * (1 - THROUGHPUT_TOLERANCE))) {
+                // Last move made things worse. Climb the other way.
+                direction = -direction;
+            }
+            final int ceiling = (int) Math.ceil(processorCount / Math.max(1 - blockingRatio, MIN_CPU_RATIO));
+            target = Math.min(current + direction, ceiling);
+        }
+        lastThroughput = throughput;
+        final int bounded = Math.min(Math.max(target, minThreadCount), maxThreadCount);
+        if (bounded != current) {
+            pool.setCorePoolSize(bounded);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+// Copyright 2024 GlitchyByte
+// SPDX-License-Identifier: Apache-2.0
+
+package com.glitchybyte.glib.concurrent;
+
+import com.glitchybyte.glib.function.GCancelable;
+import com.glitchybyte.glib.log.GLog;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A scheduler of periodic tasks that coalesces tasks with the same period
+ * into a single timer on top of a {@link GTaskScheduler}.
+ *
+ * <p>All tasks sharing a period fire together on one tick and run as a
+ * batch, so thousands of "every second" jobs cost one wake-up per second
+ * instead of thousands. A new task joins its group in phase: it first runs
+ * on the group's next tick, not a full period after it was scheduled.
+ *
+ * <p>With a slack, a task joins the group whose period is closest to its own,
+ * as long as it's within the slack, so near-identical periods share a group
+ * too. A group keeps the exact period of the task that created it, so a task
+ * never runs at a period more than the slack away from its own, and a task
+ * that starts a group runs at exactly its own period.
+ *
+ * <p>A batch runs its tasks sequentially, so tasks should be short. An
+ * exception in one task is logged and does not affect the others.
+ */
+public final class GCoalescingScheduler {
+
+    private final GTaskScheduler scheduler;
+    private final long slackNanos;
+    private final NavigableMap<Long, Group> groups = new TreeMap<>();
+    private final Lock groupsLock = new ReentrantLock();
+
+    /**
+     * Creates a coalescing scheduler that groups tasks with the exact same
+     * period.
+     *
+     * @param scheduler Scheduler on which to run the group timers.
+     */
+    public GCoalescingScheduler(final GTaskScheduler scheduler) {
+        this(scheduler, Duration.ZERO);
+    }
+
+    /**
+     * Creates a coalescing scheduler that groups tasks with periods within
+     * the given slack.
+     *
+     * @param scheduler Scheduler on which to run the group timers.
+     * @param slack Maximum difference between a task's period and its group's. Zero to group only identical periods.
+     */
+    public GCoalescingScheduler(final GTaskScheduler scheduler, final Duration slack) {
+        if (slack.isNegative()) {
+            throw new IllegalArgumentException("slack can't be negative!");
+        }
+        this.scheduler = scheduler;
+        slackNanos = slack.toNanos();
+    }
+
+    /**
+     * Schedules a task to run at a fixed rate, together with every other
+     * task of the same period.
+     *
+     * @param period Cadence at which the task runs.
+     * @param runnable Task to schedule.
+     * @return A {@link GCancelable} to cancel the task.
+     */
+    public GCancelable scheduleAtFixedRate(final Duration period, final Runnable runnable) {
+        final long periodNanos = period.toNanos();
+        if (periodNanos <= 0) {
+            throw new IllegalArgumentException("period must be positive!");
+        }
+        final Member member = new Member(runnable);
+        GLock.locked(groupsLock, () -> {
+            final Group group = findGroup(periodNanos);
+            group.members.add(member);
+            member.group = group;
+        });
+        return member;
+    }
+
+    /**
+     * Returns the number of group timers currently scheduled.
+     *
+     * @return The number of group timers currently scheduled.
+     */
+    public int getGroupCount() {
+        return GLock.lockedResult(groupsLock, groups::size);
+    }
+
+    /**
+     * Finds the group with the closest period within the slack, or creates
+     * one with the given period if there's none.
+     * <p>
+     * Must be called with the groups lock held.
+     *
+     * @param periodNanos Period of the task joining a group.
+     * @return The group for the task.
+     */
+    private Group findGroup(final long periodNanos) {
+        final Map.Entry<Long, Group> below = groups.floorEntry(periodNanos);
+        final Map.Entry<Long, Group> above = groups.ceilingEntry(periodNanos);
+        final long belowDistance = below == null ? Long.MAX_VALUE : periodNanos - below.getKey();
+        final long aboveDistance = above == null ? Long.MAX_VALUE : above.getKey() - periodNanos;
+        if ((belowDistance <= aboveDistance) && (belowDistance <= slackNanos)) {
+            return below.getValue();
+        }
+        if (aboveDistance <= slackNanos) {
+            return above.getValue();
+        }
+        final Group group = new Group(periodNanos);
+        groups.put(periodNanos, group);
+        return group;
+    }
+
+    private void removeMember(final Member member) {
+        GLock.locked(groupsLock, () -> {
+            final Group group = member.group;
+            if ((group == null) || !group.members.remove(member)) {
+                return;
+            }
+            member.group = null;
+            if (group.members.isEmpty()) {
+                groups.remove(group.periodNanos);
+                group.timer.cancel();
+            }
+        });
+    }
+
+    /**
+     * Tasks sharing a period, and their common timer.
+     */
+    private final class Group {
+
+        public final long periodNanos;
+        public final Set<Member> members = ConcurrentHashMap.newKeySet();
+        public final GCancelable timer;
+
+        public Group(final long periodNanos) {
+            this.periodNanos = periodNanos;
+            final Duration period = Duration.ofNanos(periodNanos);
+            timer = scheduler.scheduleAtFixedRate(period, period, this::runBatch);
+        }
+
+        private void runBatch() {
+            for (final Member member: members) {
+                try {
+                    member.runnable.run();
+                } catch (final Throwable e) {
+                    GLog.warning(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * A task in a group.
+     */
+    private final class Member implements GCancelable {
+
+        public final Runnable runnable;
+        public Group group = null;
+
+        public Member(final Runnable runnable) {
+            this.runnable = runnable;
+        }
+
+        @Override
+        public void cancel() {
+            removeMember(this);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+// Copyright 2024 GlitchyByte
+// SPDX-License-Identifier: Apache-2.0
+
+package com.glitchybyte.glib.concurrent;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Iterator over a group of futures that yields them in completion order.
+ *
+ * <p>Every future returned by {@code next} is already complete, normally or
+ * exceptionally. {@code next} blocks until the next future completes.
+ *
+ * @param <V> Type of future result.
+ */
+final class GCompletionIterator<V> implements Iterator<CompletableFuture<V>> {
+
+    private final BlockingQueue<CompletableFuture<V>> completed = new LinkedBlockingQueue<>();
+    private int remaining;
+
+    /**
+     * Creates an iterator over the given futures.
+     *
+     * @param futures Futures to yield in completion order.
+     */
+    GCompletionIterator(final List<CompletableFuture<V>> futures) {
+        remaining = futures.size();
+        futures.forEach(future -> future.whenComplete((result, throwable) -> completed.add(future)));
+    }
+
+    @Override
+    public boolean hasNext() {
+        return remaining > 0;
+    }
+
+    @Override
+    public CompletableFuture<V> next() {
+        if (remaining == 0) {
+            throw new NoSuchElementException();
+        }
+        try {
+            final CompletableFuture<V> future = completed.take();
+            --remaining;
+            return future;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+}
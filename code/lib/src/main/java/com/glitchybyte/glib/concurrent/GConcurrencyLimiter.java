@@ -0,0 +1,342 @@
+// Copyright 2024 GlitchyByte
+// SPDX-License-Identifier: Apache-2.0
+
+package com.glitchybyte.glib.concurrent;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limiter whose limit adapts to the measured latency of the work
+ * it admits.
+ *
+ * <p>The limit grows additively, by about one every round trip, while the
+ * limit is in use and latency stays near its baseline. It shrinks
+ * multiplicatively, at most once every round trip, when latency rises past
+ * the tolerance or when work is dropped. The baseline is the lowest recent
+ * latency, and it drifts up slowly so a lasting change downstream is
+ * eventually accepted.
+ *
+ * <p>Each acquisition returns a {@link Permit} that must be released
+ * exactly once, and how it is released is what drives the limit.
+ * {@link #tryAcquire()} never waits. {@link #acquire()} returns a future
+ * that completes, in order, when the limit allows it, so callers wait
+ * without holding a thread.
+ */
+public final class GConcurrencyLimiter {
+
+    private static final double BASELINE_DRIFT = 0.01;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double latencyTolerance;
+    private final Lock lock = new ReentrantLock();
+    private final Queue<CompletableFuture<Permit>> waiters = new ArrayDeque<>();
+    private double limit;
+    private int inFlight = 0;
+    private double baselineNanos = Double.NaN;
+    private long lastDecreaseTime;
+
+    private GConcurrencyLimiter(final Builder builder) {
+        minLimit = builder.minLimit;
+        maxLimit = builder.maxLimit;
+        backoffRatio = builder.backoffRatio;
+        latencyTolerance = builder.latencyTolerance;
+        limit = Math.min(Math.max(builder.initialLimit, minLimit), maxLimit);
+        lastDecreaseTime = System.nanoTime();
+    }
+
+    /**
+     * Returns the current limit.
+     *
+     * @return The current limit.
+     */
+    public int getLimit() {
+        return GLock.lockedResult(lock, () -> (int) limit);
+    }
+
+    /**
+     * Returns the number of permits held.
+     *
+     * @return The number of permits held.
+     */
+    public int getInFlight() {
+        return GLock.lockedResult(lock, () -> inFlight);
+    }
+
+    /**
+     * Acquires a permit if the limit allows it right now.
+     *
+     * @return A permit, or null if the limit has been reached.
+     */
+    public Permit tryAcquire() {
+        return GLock.lockedResult(lock, () -> {
+            if (!waiters.isEmpty() || (inFlight >= (int) limit)) {
+                return null;
+            }
+            ++inFlight;
+            return new Permit();
+        });
+    }
+
+    /**
+     * Acquires a permit once the limit allows it.
+     *
+     * @return A future that completes with a permit.
+     */
+    public CompletableFuture<Permit> acquire() {
+        final CompletableFuture<Permit> future = new CompletableFuture<>();
+        final Permit permit = GLock.lockedResult(lock, () -> {
+            if (!waiters.isEmpty() || (inFlight >= (int) limit)) {
+                waiters.add(future);
+                return null;
+            }
+            ++inFlight;
+            return new Permit();
+        });
+        if (permit != null) {
+            future.complete(permit);
+        }
+        return future;
+    }
+
+    /**
+     * Submits a {@link Runnable} to the runner once the limit allows it.
+     *
+     * @param runner Runner on which to run.
+     * @param runnable A {@link Runnable} to execute.
+     * @return A {@link CompletableFuture<Void>} representing pending completion of the task.
+     */
+    public CompletableFuture<Void> run(final GTaskRunner runner, final Runnable runnable) {
+        return call(runner, () -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    /**
+     * Submits a {@link Callable} to the runner once the limit allows it.
+     *
+     * <p>The permit is released when the task completes. A task that fails
+     * with a {@link TimeoutException}, or that the runner rejects, counts as
+     * dropped. A task that fails otherwise doesn't affect the limit.
+     *
+     * @param runner Runner on which to run.
+     * @param callable A {@link Callable} to execute.
+     * @return A {@link CompletableFuture} representing pending completion of the task.
+     * @param <V> Type of task result.
+     */
+    public <V> CompletableFuture<V> call(final GTaskRunner runner, final Callable<V> callable) {
+        return acquire().thenCompose(permit -> {
+            final CompletableFuture<V> future;
+            try {
+                future = runner.call(callable);
+            } catch (final RejectedExecutionException e) {
+                permit.releaseDropped();
+                throw e;
+            }
+            return future.whenComplete((result, e) -> {
+                final Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                if (cause == null) {
+                    permit.release();
+                } else if (cause instanceof TimeoutException) {
+                    permit.releaseDropped();
+                } else {
+                    permit.releaseIgnored();
+                }
+            });
+        });
+    }
+
+    private void onRelease(final long latencyNanos, final boolean isDropped, final boolean isSample) {
+        final List<CompletableFuture<Permit>> admitted = new ArrayList<>();
+        GLock.locked(lock, () -> {
+            final boolean wasLimited = inFlight >= (limit / 2);
+            --inFlight;
+            if (isDropped) {
+                decrease();
+            } else if (isSample) {
+                if (Double.isNaN(baselineNanos) || (latencyNanos < baselineNanos)) {
+                    baselineNanos = latencyNanos;
+                } else {
+                    baselineNanos += (latencyNanos - baselineNanos) * BASELINE_DRIFT;
+                }
+                if (latencyNanos > (baselineNanos * latencyTolerance)) {
+                    decrease();
+                } else if (wasLimited) {
+                    // Only grow when the limit is what's holding work back.
+                    limit = Math.min(limit + (1 / limit), maxLimit);
+                }
+            }
+            while (!waiters.isEmpty() && (inFlight < (int) limit)) {
+                ++inFlight;
+                admitted.add(waiters.remove());
+            }
+        });
+        // Completed outside the lock, as completion runs dependent stages.
+        for (final CompletableFuture<Permit> future: admitted) {
+            if (!future.complete(new Permit())) {
+                // Canceled while waiting.
+                onRelease(0, false, false);
+            }
+        }
+    }
+
+    private void decrease() {
+        final long now = System.nanoTime();
+        // Work that was already in flight reports the same congestion, so back off once per round trip.
+        if (!Double.isNaN(baselineNanos) && ((now - lastDecreaseTime) < baselineNanos)) {
+            return;
+        }
+        lastDecreaseTime = now;
+        limit = Math.max(limit * backoffRatio, minLimit);
+    }
+
+    /**
+     * Admission to run one unit of work.
+     */
+    public final class Permit {
+
+        private final long acquiredTime = System.nanoTime();
+        private final AtomicBoolean isReleased = new AtomicBoolean(false);
+
+        private Permit() {
+            // Only the limiter creates permits.
+        }
+
+        /**
+         * Releases the permit after the work succeeded. Its latency feeds
+         * the limit.
+         */
+        public void release() {
+            release(false, true);
+        }
+
+        /**
+         * Releases the permit after the work was dropped, timed out, or was
+         * rejected downstream. The limit backs off.
+         */
+        public void releaseDropped() {
+            release(true, false);
+        }
+
+        /**
+         * Releases the permit without affecting the limit. For work that
+         * failed for reasons unrelated to load.
+         */
+        public void releaseIgnored() {
+            release(false, false);
+        }
+
+        private void release(final boolean isDropped, final boolean isSample) {
+            if (isReleased.compareAndSet(false, true)) {
+                onRelease(System.nanoTime() - acquiredTime, isDropped, isSample);
+            }
+        }
+    }
+
+    /**
+     * {@code GConcurrencyLimiter} builder.
+     *
+     * <p>By default, it starts at a limit of 20 within 1 and 1,000, backs off
+     * to 90% of the limit, and tolerates latency up to twice its baseline.
+     */
+    public static final class Builder {
+
+        private final int initialLimit;
+        private final int minLimit;
+        private final int maxLimit;
+        private final double backoffRatio;
+        private final double latencyTolerance;
+
+        private Builder(final int initialLimit, final int minLimit, final int maxLimit, final double backoffRatio,
+                final double latencyTolerance) {
+            this.initialLimit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+            this.backoffRatio = backoffRatio;
+            this.latencyTolerance = latencyTolerance;
+        }
+
+        /**
+         * Creates a {@code GConcurrencyLimiter} builder with default values.
+         */
+        public Builder() {
+            this(20, 1, 1_000, 0.9, 2.0);
+        }
+
+        /**
+         * Changes the initial limit. It is kept within the limit bounds.
+         *
+         * @param initialLimit Initial limit.
+         * @return A new builder with updated values.
+         */
+        public Builder withInitialLimit(final int initialLimit) {
+            if (initialLimit < 1) {
+                throw new IllegalArgumentException("initialLimit must be positive!");
+            }
+            return new Builder(initialLimit, minLimit, maxLimit, backoffRatio, latencyTolerance);
+        }
+
+        /**
+         * Changes the limit bounds.
+         *
+         * @param minLimit Minimum limit.
+         * @param maxLimit Maximum limit.
+         * @return A new builder with updated values.
+         */
+        public Builder withLimits(final int minLimit, final int maxLimit) {
+            if ((minLimit < 1) || (maxLimit < minLimit)) {
+                throw new IllegalArgumentException("Limits must be positive and max must not be less than min!");
+            }
+            return new Builder(initialLimit, minLimit, maxLimit, backoffRatio, latencyTolerance);
+        }
+
+        /**
+         * Changes the fraction of the limit kept when backing off.
+         *
+         * @param backoffRatio Fraction of the limit kept, between 0 and 1.
+         * @return A new builder with updated values.
+         */
+        public Builder withBackoffRatio(final double backoffRatio) {
+            if (!(backoffRatio > 0) || !(backoffRatio < 1)) {
+                throw new IllegalArgumentException("backoffRatio must be between 0 and 1!");
+            }
+            return new Builder(initialLimit, minLimit, maxLimit, backoffRatio, latencyTolerance);
+        }
+
+        /**
+         * Changes how much latency can rise over its baseline before the
+         * limit backs off.
+         *
+         * @param latencyTolerance Multiple of the baseline latency. At least 1.
+         * @return A new builder with updated values.
+         */
+        public Builder withLatencyTolerance(final double latencyTolerance) {
+            if (!(latencyTolerance >= 1)) {
+                throw new IllegalArgumentException("latencyTolerance must be at least 1!");
+            }
+            return new Builder(initialLimit, minLimit, maxLimit, backoffRatio, latencyTolerance);
+        }
+
+        /**
+         * Builds a {@code GConcurrencyLimiter}.
+         *
+         * @return A {@code GConcurrencyLimiter}.
+         */
+        public GConcurrencyLimiter build() {
+            return new GConcurrencyLimiter(this);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+// Copyright 2024 GlitchyByte
+// SPDX-License-Identifier: Apache-2.0
+
+package com.glitchybyte.glib.concurrent;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Immutable key/value context that follows work across threads, like
+ * request ids or trace ids.
+ *
+ * <p>A context is bound to the current thread only for the duration of
+ * {@link #run(Runnable)} or {@link #call(Callable)}, and read with
+ * {@link #current()}. Runnables and callables submitted to a
+ * {@link GTaskRunner}, and items added to a
+ * {@link com.glitchybyte.glib.concurrent.workqueue.GWorkQueue}, capture the
+ * current context at submit time and run with it. Started {@link GTask}s
+ * don't, as they are long-lived and serve work from many contexts. As contexts are
+ * immutable, capturing one is a reference read and nothing is copied.
+ *
+ * <p>Bindings are always scoped and restored on exit, the same model as
+ * {@code ScopedValue}, so code written against this class doesn't leak
+ * context between tasks sharing a pooled thread.
+ *
+ * <p>{@link com.glitchybyte.glib.log.GLog} lines include the current
+ * context.
+ */
+public final class GContext {
+
+    private static final GContext EMPTY = new GContext(new String[0]);
+    private static final ThreadLocal<GContext> currentContext = new ThreadLocal<>();
+
+    // Alternating keys and values, in insertion order.
+    private final String[] entries;
+    private String text = null;
+
+    private GContext(final String[] entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Returns the empty context.
+     *
+     * @return The empty context.
+     */
+    public static GContext empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Returns the context bound to the current thread. Empty if there is
+     * none.
+     *
+     * @return The context bound to the current thread.
+     */
+    public static GContext current() {
+        final GContext context = currentContext.get();
+        return context == null ? EMPTY : context;
+    }
+
+    /**
+     * Returns a context with the given key set to the given value.
+     *
+     * @param key Key.
+     * @param value Value. Null to remove the key.
+     * @return A context with the given key set to the given value.
+     */
+    public GContext with(final String key, final String value) {
+        if (key == null) {
+            throw new IllegalArgumentException("key can't be null!");
+        }
+        final int index = indexOf(key);
+        if (value == null) {
+            if (index < 0) {
+                return this;
+            }
+            final String[] removed = new String[entries.length - 2];
+            System.arraycopy(entries, 0, removed, 0, index);
+            System.arraycopy(entries, index + 2, removed, index, entries.length - index - 2);
+            return removed.length == 0 ? EMPTY : new GContext(removed);
+        }
+        final String[] updated;
+        if (index < 0) {
+            updated = Arrays.copyOf(entries, entries.length + 2);
+            updated[entries.length] = key;
+            updated[entries.length + 1] = value;
+        } else {
+            updated = entries.clone();
+            updated[index + 1] = value;
+        }
+        return new GContext(updated);
+    }
+
+    /**
+     * Returns the value of the given key.
+     *
+     * @param key Key.
+     * @return The value of the given key, or null if it's not set.
+     */
+    public String get(final String key) {
+        final int index = indexOf(key);
+        return index < 0 ? null : entries[index + 1];
+    }
+
+    /**
+     * Returns whether this context has no keys.
+     *
+     * @return Whether this context has no keys.
+     */
+    public boolean isEmpty() {
+        return entries.length == 0;
+    }
+
+    /**
+     * Returns this context as an unmodifiable map, in insertion order.
+     *
+     * @return This context as an unmodifiable map.
+     */
+    public Map<String, String> asMap() {
+        final Map<String, String> map = new LinkedHashMap<>();
+        for (int i = 0; i < entries.length; i += 2) {
+            map.put(entries[i], entries[i + 1]);
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * Runs a block of code with this context bound to the current thread.
+     * The previous context is restored afterward.
+     *
+     * @param runnable Block of code.
+     */
+    public void run(final Runnable runnable) {
+        final GContext previous = bind(this);
+        try {
+            runnable.run();
+        } finally {
+            bind(previous);
+        }
+    }
+
+    /**
+     * Runs a block of code, with a return value, with this context bound to
+     * the current thread. The previous context is restored afterward.
+     *
+     * @param callable Block of code.
+     * @return Value returned by the block.
+     * @param <V> Type of the return value.
+     * @throws Exception If the block throws.
+     */
+    public <V> V call(final Callable<V> callable) throws Exception {
+        final GContext previous = bind(this);
+        try {
+            return callable.call();
+        } finally {
+            bind(previous);
+        }
+    }
+
+    /**
+     * Wraps a {@link Runnable} so it runs with the context of the current
+     * thread, captured now.
+     *
+     * @param runnable {@link Runnable} to wrap.
+     * @return A wrapped {@link Runnable}, or the same one if there is no context.
+     */
+    public static Runnable wrap(final Runnable runnable) {
+        final GContext context = current();
+        return context.isEmpty() ? runnable : () -> context.run(runnable);
+    }
+
+    private static GContext bind(final GContext context) {
+        final GContext previous = currentContext.get();
+        if ((context == null) || context.isEmpty()) {
+            currentContext.remove();
+        } else {
+            currentContext.set(context);
+        }
+        return previous;
+    }
+
+    private int indexOf(final String key) {
+        for (int i = 0; i < entries.length; i += 2) {
+            if (entries[i].equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns this context as space separated {@code key=value} pairs.
+     *
+     * @return This context as space separated {@code key=value} pairs.
+     */
+    @Override
+    public String toString() {
+        // Racy but benign, as every thread computes the same string.
+        String result = text;
+        if (result == null) {
+            final StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < entries.length; i += 2) {
+                if (i > 0) {
+                    sb.append(' ');
+                }
+                sb.append(entries[i]).append('=').append(entries[i + 1]);
+            }
+            result = sb.toString();
+            text = result;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,270 @@
+// Copyright 2024 GlitchyByte
+// SPDX-License-Identifier: Apache-2.0
+
+package com.glitchybyte.glib.concurrent;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.zone.ZoneRules;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A cron expression that computes calendar firing times.
+ *
+ * <p>Expressions have 5 fields: minute, hour, day of month, month, and day
+ * of week. An optional leading sixth field gives the second. Each field
+ * accepts {@code *}, values, ranges ({@code 1-5}), lists ({@code 1,3,5}),
+ * and steps ({@code *}{@code /15}, {@code 10-30/5}). Months and days of the
+ * week also accept names ({@code JAN}, {@code MON}). Sunday is 0 or 7. If
+ * both day of month and day of week are restricted, a day matching either
+ * one fires, as in standard cron. As there, a field starting with {@code *},
+ * including a step like {@code *}{@code /2}, isn't a restriction, so it must
+ * match too.
+ *
+ * <p>The macros {@code @yearly}, {@code @monthly}, {@code @weekly},
+ * {@code @daily}, and {@code @hourly} are supported too.
+ *
+ * <p>Firing times are computed in the time zone of the given date-time.
+ * Local times skipped by a daylight saving transition fire at the instant
+ * of the transition, once even if several skipped times match. A local time
+ * repeated by a transition fires only once.
+ */
+public final class GCronExpression {
+
+    // Upper bound on how far ahead to look for a match, so impossible dates like February 30 terminate.
+    private static final int MAX_YEARS_AHEAD = 100;
+
+    private static final List<String> MONTH_NAMES = List.of(
+            "JAN", "FEB", "MAR", "APR", "MAY", "JUN", "JUL", "AUG", "SEP", "OCT", "NOV", "DEC"
+    );
+    private static final List<String> DAY_OF_WEEK_NAMES = List.of(
+            "SUN", "MON", "TUE", "WED", "THU", "FRI", "SAT"
+    );
+
+    private final String expression;
+    private final long seconds;
+    private final long minutes;
+    private final long hours;
+    private final long daysOfMonth;
+    private final long months;
+    private final long daysOfWeek;
+    private final boolean isDayOfMonthRestricted;
+    private final boolean isDayOfWeekRestricted;
+
+    private GCronExpression(final String expression, final String[] fields) {
+        this.expression = expression;
+        final int offset = fields.length == 6 ? 1 : 0;
+        seconds = offset == 1 ? parseField(fields[0], 0, 59, null) : 1L;
+        minutes = parseField(fields[offset], 0, 59, null);
+        hours = parseField(fields[offset + 1], 0, 23, null);
+        daysOfMonth = parseField(fields[offset + 2], 1, 31, null);
+        months = parseField(fields[offset + 3], 1, 12, MONTH_NAMES);
+        final long rawDaysOfWeek = parseField(fields[offset + 4], 0, 7, DAY_OF_WEEK_NAMES);
+        // Both 0 and 7 are Sunday.
+        daysOfWeek = (rawDaysOfWeek | (rawDaysOfWeek >>> 7)) & 0x7FL;
+        isDayOfMonthRestricted = isRestricted(fields[offset + 2]);
+        isDayOfWeekRestricted = isRestricted(fields[offset + 4]);
+    }
+
+    /**
+     * Parses a cron expression.
+     *
+     * @param expression Cron expression.
+     * @return The parsed cron expression.
+     * @throws IllegalArgumentException If the expression is not valid.
+     */
+    public static GCronExpression parse(final String expression) {
+        if (expression == null) {
+            throw new IllegalArgumentException("Cron expression can't be null!");
+        }
+        final String trimmed = expression.trim();
+        final String expanded = switch (trimmed.toLowerCase(Locale.US)) {
+            case "@yearly", "@annually" -> "0 0 1 1 *";
+            case "@monthly" -> "0 0 1 * *";
+            case "@weekly" -> "0 0 * * 0";
+            case "@daily", "@midnight" -> "0 0 * * *";
+            case "@hourly" -> "0 * * * *";
+            default -> trimmed;
+        };
+        final String[] fields = expanded.split("\\s+");
+        if ((fields.length != 5) && (fields.length != 6)) {
+            throw new IllegalArgumentException("Cron expression must have 5 or 6 fields: " + expression);
+        }
+        return new GCronExpression(trimmed, fields);
+    }
+
+    /**
+     * Returns the first firing time strictly after the given date-time, in
+     * its time zone.
+     *
+     * @param after Date-time after which to look for a firing time.
+     * @return The next firing time, or null if the expression never fires.
+     */
+    public ZonedDateTime next(final ZonedDateTime after) {
+        LocalDateTime time = after.toLocalDateTime().truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+        final int yearLimit = time.getYear() + MAX_YEARS_AHEAD;
+        while (time.getYear() <= yearLimit) {
+            final int month = nextSetBit(months, time.getMonthValue());
+            if (month < 0) {
+                time = LocalDateTime.of(time.getYear() + 1, 1, 1, 0, 0);
+                continue;
+            }
+            if (month != time.getMonthValue()) {
+                time = LocalDateTime.of(time.getYear(), month, 1, 0, 0);
+                continue;
+            }
+            if (!isDayMatch(time.toLocalDate())) {
+                time = time.toLocalDate().plusDays(1).atStartOfDay();
+                continue;
+            }
+            final int hour = nextSetBit(hours, time.getHour());
+            if (hour < 0) {
+                time = time.toLocalDate().plusDays(1).atStartOfDay();
+                continue;
+            }
+            if (hour != time.getHour()) {
+                time = time.toLocalDate().atTime(hour, 0);
+                continue;
+            }
+            final int minute = nextSetBit(minutes, time.getMinute());
+            if (minute < 0) {
+                time = time.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+                continue;
+            }
+            if (minute != time.getMinute()) {
+                time = time.truncatedTo(ChronoUnit.HOURS).withMinute(minute);
+                continue;
+            }
+            final int second = nextSetBit(seconds, time.getSecond());
+            if (second < 0) {
+                time = time.truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+                continue;
+            }
+            time = time.withSecond(second);
+            final ZonedDateTime candidate = atZone(time, after.getZone());
+            if (candidate.isAfter(after)) {
+                return candidate;
+            }
+            time = time.plusSeconds(1);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the local time in the zone. Local times in a gap map to the
+     * transition instant, and local times in an overlap take the earlier
+     * offset.
+     *
+     * @param time Local time.
+     * @param zone Time zone.
+     * @return The local time in the zone.
+     */
+    private static ZonedDateTime atZone(final LocalDateTime time, final ZoneId zone) {
+        final ZoneRules rules = zone.getRules();
+        if (rules.getValidOffsets(time).isEmpty()) {
+            return rules.getTransition(time).getInstant().atZone(zone);
+        }
+        return ZonedDateTime.ofLocal(time, zone, null);
+    }
+
+    private boolean isDayMatch(final LocalDate date) {
+        final boolean isDayOfMonthMatch = isSet(daysOfMonth, date.getDayOfMonth());
+        final boolean isDayOfWeekMatch = isSet(daysOfWeek, date.getDayOfWeek().getValue() % 7);
+        if (isDayOfMonthRestricted && isDayOfWeekRestricted) {
+            return isDayOfMonthMatch || isDayOfWeekMatch;
+        }
+        return isDayOfMonthMatch && isDayOfWeekMatch;
+    }
+
+    private static boolean isSet(final long bits, final int index) {
+        return (bits & (1L << index)) != 0;
+    }
+
+    private static int nextSetBit(final long bits, final int from) {
+        final long remaining = bits & (-1L << from);
+        return remaining == 0 ? -1 : Long.numberOfTrailingZeros(remaining);
+    }
+
+    private static boolean isWildcard(final String field) {
+        return field.equals("*") || field.equals("?");
+    }
+
+    private static boolean isRestricted(final String field) {
+        return !field.startsWith("*") && !field.equals("?");
+    }
+
+    private static long parseField(final String field, final int min, final int max, final List<String> names) {
+        long bits = 0;
+        for (final String part: field.split(",", -1)) {
+            bits |= parsePart(field, part, min, max, names);
+        }
+        return bits;
+    }
+
+    private static long parsePart(final String field, final String part, final int min, final int max,
+            final List<String> names) {
+        final String range;
+        final int step;
+        final int slash = part.indexOf('/');
+        if (slash < 0) {
+            range = part;
+            step = 1;
+        } else {
+            range = part.substring(0, slash);
+            step = parseValue(field, part.substring(slash + 1), 1, max, null);
+        }
+        final int start;
+        final int end;
+        if (isWildcard(range)) {
+            start = min;
+            end = max;
+        } else {
+            final int dash = range.indexOf('-');
+            if (dash < 0) {
+                start = parseValue(field, range, min, max, names);
+                // A single value with a step runs to the end of the range.
+                end = slash < 0 ? start : max;
+            } else {
+                start = parseValue(field, range.substring(0, dash), min, max, names);
+                end = parseValue(field, range.substring(dash + 1), min, max, names);
+            }
+        }
+        if (start > end) {
+            throw new IllegalArgumentException("Invalid cron range: " + field);
+        }
+        long bits = 0;
+        for (int i = start; i <= end; i += step) {
+            bits |= 1L << i;
+        }
+        return bits;
+    }
+
+    private static int parseValue(final String field, final String value, final int min, final int max,
+            final List<String> names) {
+        if (names != null) {
+            final int index = names.indexOf(value.toUpperCase(Locale.US));
+            if (index >= 0) {
+                return index + (min == 1 ? 1 : 0);
+            }
+        }
+        final int number;
+        try {
+            number = Integer.parseInt(value);
+        } catch (final NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cron field: " + field, e);
+        }
+        if ((number < min) || (number > max)) {
+            throw new IllegalArgumentException("Cron value out of range: " + field);
+        }
+        return number;
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+}
@@ -0,0 +1,100 @@
+// Copyright 2024 GlitchyByte
+// SPDX-License-Identifier: Apache-2.0
+
+package com.glitchybyte.glib.concurrent;
+
+import com.glitchybyte.glib.function.GCancelable;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * A cron schedule chained as one-shot timers on a {@link GTaskScheduler}.
+ *
+ * <p>Only the next firing is ever scheduled, and the one after it is
+ * computed when it fires. So each schedule costs a single timer in the
+ * underlying scheduler, and runs never overlap.
+ */
+final class GCronSchedule implements GCancelable {
+
+    // A firing later than this after its scheduled time is a misfire.
+    private static final Duration MISFIRE_THRESHOLD = Duration.ofSeconds(1);
+
+    private final GTaskScheduler scheduler;
+    private final GCronExpression cron;
+    private final ZoneId zone;
+    private final GMisfirePolicy misfirePolicy;
+    private final Runnable runnable;
+    private volatile boolean isCanceled = false;
+    private volatile GCancelable timer = null;
+
+    /**
+     * Creates a cron schedule. It doesn't fire until started.
+     *
+     * @param scheduler Scheduler on which to chain the firings.
+     * @param cron Cron expression with the firing times.
+     * @param zone Time zone in which to evaluate the cron expression.
+     * @param misfirePolicy What to do with late firings.
+     * @param runnable Task to schedule.
+     */
+    public GCronSchedule(final GTaskScheduler scheduler, final GCronExpression cron, final ZoneId zone,
+            final GMisfirePolicy misfirePolicy, final Runnable runnable) {
+        this.scheduler = scheduler;
+        this.cron = cron;
+        this.zone = zone;
+        this.misfirePolicy = misfirePolicy;
+        this.runnable = runnable;
+    }
+
+    /**
+     * Schedules the first firing.
+     */
+    public void start() {
+        scheduleAt(cron.next(ZonedDateTime.now(zone)));
+    }
+
+    private void scheduleAt(final ZonedDateTime fireTime) {
+        if (isCanceled || (fireTime == null)) {
+            return;
+        }
+        final Duration delay = Duration.between(ZonedDateTime.now(zone), fireTime);
+        try {
+            timer = scheduler.schedule(delay, () -> fire(fireTime));
+        } catch (final RejectedExecutionException e) {
+            // Scheduler is closed.
+            return;
+        }
+        if (isCanceled) {
+            timer.cancel();
+        }
+    }
+
+    private void fire(final ZonedDateTime fireTime) {
+        final ZonedDateTime now = ZonedDateTime.now(zone);
+        if (now.isBefore(fireTime)) {
+            // The wall clock was set back, or the timer fired a little early.
+            scheduleAt(fireTime);
+            return;
+        }
+        final boolean isMisfire = Duration.between(fireTime, now).compareTo(MISFIRE_THRESHOLD) > 0;
+        try {
+            if (!isMisfire || (misfirePolicy == GMisfirePolicy.RUN_ONCE)) {
+                runnable.run();
+            }
+        } finally {
+            // After a misfire, resume from now instead of catching up.
+            scheduleAt(cron.next(isMisfire ? ZonedDateTime.now(zone) : fireTime));
+        }
+    }
+
+    @Override
+    public void cancel() {
+        isCanceled = true;
+        final GCancelable current = timer;
+        if (current != null) {
+            current.cancel();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+// Copyright 2024 GlitchyByte
+// SPDX-License-Identifier: Apache-2.0
+
+package com.glitchybyte.glib.concurrent;
+
+import java.time.Duration;
+
+/**
+ * A point in time by which a task must be done.
+ *
+ * <p>Tasks submitted to a {@link GTaskRunner} with a deadline can read it
+ * with {@link #current()}. Tasks they submit in turn inherit it, so nested
+ * work never outlives the budget of the work that started it.
+ */
+public final class GDeadline {
+
+    private static final ThreadLocal<GDeadline> currentDeadline = new ThreadLocal<>();
+
+    private final long deadlineNanos;
+
+    private GDeadline(final long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Creates a deadline the given timeout from now.
+     *
+     * @param timeout Time from now until the deadline.
+     * @return A deadline the given timeout from now.
+     */
+    public static GDeadline after(final Duration timeout) {
+        return new GDeadline(System.nanoTime() + timeout.toNanos());
+    }
+
+    /**
+     * Returns the deadline of the task running on the current thread, or
+     * null if it has none.
+     *
+     * @return The deadline of the task running on the current thread, or null.
+     */
+    public static GDeadline current() {
+        return currentDeadline.get();
+    }
+
+    /**
+     * Sets the deadline of the task running on the current thread.
+     *
+     * @param deadline Deadline to set. Null to clear.
+     * @return The previous deadline, or null if there was none.
+     */
+    static GDeadline setCurrent(final GDeadline deadline) {
+        final GDeadline previous = currentDeadline.get();
+        if (deadline == null) {
+            currentDeadline.remove();
+        } else {
+            currentDeadline.set(deadline);
+        }
+        return previous;
+    }
+
+    /**
+     * Returns the earliest of two deadlines. Either can be null.
+     *
+     * @param a A deadline.
+     * @param b Another deadline.
+     * @return The earliest deadline, or null if both are null.
+     */
+    public static GDeadline earliest(final GDeadline a, final GDeadline b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        return (a.deadlineNanos - b.deadlineNanos) <= 0 ? a : b;
+    }
+
+    /**
+     * Returns the time remaining until the deadline, in nanoseconds. Zero or
+     * negative if it has passed.
+     *
+     * @return The time remaining until the deadline, in nanoseconds.
+     */
+    public long remainingNanos() {
+        return deadlineNanos - System.nanoTime();
+    }
+
+    /**
+     * Returns the time remaining until the deadline. Zero if it has passed.
+     *
+     * @return The time remaining until the deadline.
+     */
+    public Duration remaining() {
+        return Duration.ofNanos(Math.max(remainingNanos(), 0));
+    }
+
+    /**
+     * Returns whether the deadline has passed.
+     *
+     * @return Whether the deadline has passed.
+     */
+    public boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+}
@@ -0,0 +1,160 @@
+// Copyright 2024 GlitchyByte
+// SPDX-License-Identifier: Apache-2.0
+
+package com.glitchybyte.glib.concurrent;
+
+import com.glitchybyte.glib.GStrings;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A lock-free histogram of non-negative long values, in the style of an
+ * HDR histogram.
+ *
+ * <p>Values are bucketed log-linearly: each power of two is split into 8
+ * linear sub-buckets, which keeps the relative error of any reported value
+ * under 12.5% while covering the whole {@code long} range with a fixed,
+ * small number of counters. Recording never allocates and never locks.
+ *
+ * <p>Negative values are recorded as zero.
+ */
+public final class GHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalSum = new LongAdder();
+    private final AtomicLong minValue = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong maxValue = new AtomicLong(0);
+
+    /**
+     * Creates an empty histogram.
+     */
+    public GHistogram() {
+        // No-op.
+    }
+
+    /**
+     * Records a value.
+     *
+     * @param value Value to record.
+     */
+    public void record(final long value) {
+        final long v = Math.max(value, 0);
+        counts.incrementAndGet(indexOf(v));
+        totalSum.add(v);
+        minValue.accumulateAndGet(v, Math::min);
+        maxValue.accumulateAndGet(v, Math::max);
+    }
+
+    /**
+     * Returns a point in time copy of this histogram.
+     *
+     * <p>Values recorded concurrently with this call may or may not be
+     * included.
+     *
+     * @return A point in time copy of this histogram.
+     */
+    public Snapshot snapshot() {
+        final long[] snapshotCounts = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; ++i) {
+            snapshotCounts[i] = counts.get(i);
+            count += snapshotCounts[i];
+        }
+        final long min = count == 0 ? 0 : minValue.get();
+        final long max = maxValue.get();
+        return new Snapshot(snapshotCounts, count, totalSum.sum(), min, max);
+    }
+
+    private static int indexOf(final long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        final int shift = (Long.SIZE - 1 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        final int subBucket = (int) (value >>> shift) - SUB_BUCKET_COUNT;
+        return ((shift + 1) * SUB_BUCKET_COUNT) + subBucket;
+    }
+
+    private static long highestValueOf(final int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        final int shift = (index / SUB_BUCKET_COUNT) - 1;
+        final long top = SUB_BUCKET_COUNT + (index % SUB_BUCKET_COUNT);
+        final long next = (top + 1) << shift;
+        // Avoid overflowing on the very last bucket.
+        return next < 0 ? Long.MAX_VALUE : next - 1;
+    }
+
+    /**
+     * Immutable copy of a histogram.
+     */
+    public static final class Snapshot {
+
+        private final long[] counts;
+
+        /**
+         * Number of recorded values.
+         */
+        public final long count;
+
+        /**
+         * Smallest recorded value. Zero if there are no values.
+         */
+        public final long min;
+
+        /**
+         * Largest recorded value. Zero if there are no values.
+         */
+        public final long max;
+
+        /**
+         * Mean of the recorded values. Zero if there are no values.
+         */
+        public final double mean;
+
+        private Snapshot(final long[] counts, final long count, final long sum, final long min, final long max) {
+            this.counts = counts;
+            this.count = count;
+            this.min = min;
+            this.max = max;
+            this.mean = count == 0 ? 0 : (double) sum / count;
+        }
+
+        /**
+         * Returns the value at the given percentile.
+         *
+         * <p>The returned value is the highest value equivalent to the bucket
+         * holding the percentile, capped at the recorded maximum.
+         *
+         * @param percentile Percentile in the range [0, 100].
+         * @return The value at the given percentile.
+         */
+        public long valueAtPercentile(final double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            final double clamped = Math.min(Math.max(percentile, 0), 100);
+            final long target = Math.max(1, (long) Math.ceil((clamped / 100) * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; ++i) {
+                seen += counts[i];
+                if (seen >= target) {
+                    return Math.max(Math.min(highestValueOf(i), max), min);
+                }
+            }
+            return max;
+        }
+
+        @Override
+        public String toString() {
+            return GStrings.format("count=%d, min=%d, p50=%d, p90=%d, p99=%d, max=%d, mean=%.1f",
+                    count, min, valueAtPercentile(50), valueAtPercentile(90), valueAtPercentile(99), max, mean);
+        }
+    }
+}
@@ -8,7 +8,12 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
 import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
@@ -19,6 +24,10 @@ import java.util.function.Supplier;
  * <p>These utilities are not meant to replace all use cases. They encapsulate
  * common quick operations. They are especially unsuited for operations that
  * throw exceptions.
+ *
+ * <p>Overloads that take context arguments pass them to the block of code.
+ * Blocks that only use their arguments don't capture anything, so they are
+ * created once instead of allocated on every call. Use them on hot paths.
  */
 public final class GLock {
 
@@ -54,6 +63,86 @@ public final class GLock {
         }
     }
 
+    /**
+     * Run a block of code with a context argument between lock and unlock.
+     *
+     * @param lock Lock.
+     * @param context Argument passed to the block.
+     * @param consumer Block of code.
+     * @param <C> Type of the context argument.
+     */
+    public static <C> void locked(final Lock lock, final C context, final Consumer<C> consumer) {
+        lock.lock();
+        try {
+            consumer.accept(context);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Run a block of code with two context arguments between lock and unlock.
+     *
+     * @param lock Lock.
+     * @param context1 First argument passed to the block.
+     * @param context2 Second argument passed to the block.
+     * @param consumer Block of code.
+     * @param <C1> Type of the first context argument.
+     * @param <C2> Type of the second context argument.
+     */
+    public static <C1, C2> void locked(final Lock lock, final C1 context1, final C2 context2,
+            final BiConsumer<C1, C2> consumer) {
+        lock.lock();
+        try {
+            consumer.accept(context1, context2);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Run a block of code with a context argument, with a return value,
+     * between lock and unlock.
+     *
+     * @param lock Lock.
+     * @param context Argument passed to the block.
+     * @param function Block of code.
+     * @return Value returned by the block.
+     * @param <C> Type of the context argument.
+     * @param <V> Type of the return value.
+     */
+    public static <C, V> V lockedResult(final Lock lock, final C context, final Function<C, V> function) {
+        lock.lock();
+        try {
+            return function.apply(context);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Run a block of code with two context arguments, with a return value,
+     * between lock and unlock.
+     *
+     * @param lock Lock.
+     * @param context1 First argument passed to the block.
+     * @param context2 Second argument passed to the block.
+     * @param function Block of code.
+     * @return Value returned by the block.
+     * @param <C1> Type of the first context argument.
+     * @param <C2> Type of the second context argument.
+     * @param <V> Type of the return value.
+     */
+    public static <C1, C2, V> V lockedResult(final Lock lock, final C1 context1, final C2 context2,
+            final BiFunction<C1, C2, V> function) {
+        lock.lock();
+        try {
+            return function.apply(context1, context2);
+        } finally {
+            lock.unlock();
+        }
+    }
+
     /**
      * Acquire lock and awaits on the condition.
      *
@@ -103,7 +192,7 @@ public final class GLock {
             throws InterruptedException {
         lock.lock();
         try {
-            return condition.await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            return condition.await(timeout.toNanos(), TimeUnit.NANOSECONDS);
         } finally {
             lock.unlock();
         }
@@ -112,6 +201,9 @@ public final class GLock {
     /**
      * Acquire lock and awaits on the condition until test is true or timeout expires.
      *
+     * <p>The timeout bounds the whole wait. Signals and spurious wakeups only
+     * use up what's left of it.
+     *
      * @param lock Lock.
      * @param condition Condition.
      * @param test Test to await for.
@@ -123,12 +215,14 @@ public final class GLock {
             final BooleanSupplier test, final Duration timeout) throws InterruptedException {
         lock.lock();
         try {
+            long remainingNanos = timeout.toNanos();
             while (!test.getAsBoolean()) {
-                if (!condition.await(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
-                    break;
+                if (remainingNanos <= 0) {
+                    return false;
                 }
+                remainingNanos = condition.awaitNanos(remainingNanos);
             }
-            return test.getAsBoolean();
+            return true;
         } finally {
             lock.unlock();
         }
@@ -193,6 +287,164 @@ public final class GLock {
         return lockedResult(lock.writeLock(), supplier);
     }
 
+    /**
+     * Run a block of code with a context argument between a read-lock and
+     * unlock.
+     *
+     * @param lock Read/write lock.
+     * @param context Argument passed to the block.
+     * @param consumer Block of code.
+     * @param <C> Type of the context argument.
+     */
+    public static <C> void readLocked(final ReadWriteLock lock, final C context, final Consumer<C> consumer) {
+        locked(lock.readLock(), context, consumer);
+    }
+
+    /**
+     * Run a block of code with a context argument, with a return value,
+     * between a read-lock and unlock.
+     *
+     * @param lock Read/write lock.
+     * @param context Argument passed to the block.
+     * @param function Block of code.
+     * @return Value returned by the block.
+     * @param <C> Type of the context argument.
+     * @param <V> Type of the return value.
+     */
+    public static <C, V> V readLockedResult(final ReadWriteLock lock, final C context, final Function<C, V> function) {
+        return lockedResult(lock.readLock(), context, function);
+    }
+
+    /**
+     * Run a block of code with a context argument between a write-lock and
+     * unlock.
+     *
+     * @param lock Read/write lock.
+     * @param context Argument passed to the block.
+     * @param consumer Block of code.
+     * @param <C> Type of the context argument.
+     */
+    public static <C> void writeLocked(final ReadWriteLock lock, final C context, final Consumer<C> consumer) {
+        locked(lock.writeLock(), context, consumer);
+    }
+
+    /**
+     * Run a block of code with a context argument, with a return value,
+     * between a write-lock and unlock.
+     *
+     * @param lock Read/write lock.
+     * @param context Argument passed to the block.
+     * @param function Block of code.
+     * @return Value returned by the block.
+     * @param <C> Type of the context argument.
+     * @param <V> Type of the return value.
+     */
+    public static <C, V> V writeLockedResult(final ReadWriteLock lock, final C context, final Function<C, V> function) {
+        return lockedResult(lock.writeLock(), context, function);
+    }
+
+    /**
+     * Run a block of code, with a return value, under an optimistic read of a
+     * stamped lock.
+     *
+     * <p>The block first runs without locking. If a write happened meanwhile,
+     * it runs again under a read-lock. So it must only read state, and cope
+     * with seeing it inconsistent on the first run, without throwing or
+     * looping.
+     *
+     * @param lock Stamped lock.
+     * @param supplier Block of code.
+     * @return Value returned by the block.
+     * @param <V> Type of the return value.
+     */
+    public static <V> V optimisticRead(final StampedLock lock, final Supplier<V> supplier) {
+        final long optimisticStamp = lock.tryOptimisticRead();
+        if (optimisticStamp != 0) {
+            final V value = supplier.get();
+            if (lock.validate(optimisticStamp)) {
+                return value;
+            }
+        }
+        final long stamp = lock.readLock();
+        try {
+            return supplier.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Run a block of code between a stamped write-lock and unlock.
+     *
+     * @param lock Stamped lock.
+     * @param runnable Block of code.
+     */
+    public static void writeLocked(final StampedLock lock, final Runnable runnable) {
+        final long stamp = lock.writeLock();
+        try {
+            runnable.run();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Run a block of code, with a return value, between a stamped write-lock
+     * and unlock.
+     *
+     * @param lock Stamped lock.
+     * @param supplier Block of code.
+     * @return Value returned by the block.
+     * @param <V> Type of the return value.
+     */
+    public static <V> V writeLockedResult(final StampedLock lock, final Supplier<V> supplier) {
+        final long stamp = lock.writeLock();
+        try {
+            return supplier.get();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Tests under a stamped read-lock, and if the test is true, converts to a
+     * write-lock and runs a block of code.
+     *
+     * <p>This is for the common case where a write is rarely needed, like
+     * filling a cache entry. If the lock can't be converted in place, the
+     * read-lock is released, a write-lock is acquired, and the test is
+     * checked again before running the block.
+     *
+     * @param lock Stamped lock.
+     * @param test Test that tells if the write is needed.
+     * @param runnable Block of code to run under the write-lock.
+     * @return True if the block ran.
+     */
+    public static boolean readThenWriteLocked(final StampedLock lock, final BooleanSupplier test,
+            final Runnable runnable) {
+        long stamp = lock.readLock();
+        try {
+            if (!test.getAsBoolean()) {
+                return false;
+            }
+            final long writeStamp = lock.tryConvertToWriteLock(stamp);
+            if (writeStamp != 0) {
+                stamp = writeStamp;
+            } else {
+                lock.unlockRead(stamp);
+                stamp = lock.writeLock();
+                // Another writer may have done it while we weren't holding the lock.
+                if (!test.getAsBoolean()) {
+                    return false;
+                }
+            }
+            runnable.run();
+            return true;
+        } finally {
+            lock.unlock(stamp);
+        }
+    }
+
     private GLock() {
         // Hiding constructor.
     }
@@ -0,0 +1,358 @@
+// Copyright 2024 GlitchyByte
+// SPDX-License-Identifier: Apache-2.0
+
+package com.glitchybyte.glib.concurrent;
+
+import com.glitchybyte.glib.GStrings;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Lock contention profiler.
+ *
+ * <p>Locks created with {@link #newLock(String)} are {@link GProfiledLock}s
+ * that, while profiling is enabled, record how often they are acquired, how
+ * long threads wait for them, how long they are held, and the worst waits.
+ * Read/write locks created with {@link #newReadWriteLock(String)} record
+ * their read and write sides under {@code name.read} and
+ * {@code name.write}.
+ * Locks created with the same name share their statistics, so a name is
+ * usually a lock role, like "queue", rather than a lock instance.
+ *
+ * <p>Profiled locks work with the {@link GLock} helpers like any other lock,
+ * so everything that goes through them is measured. The library's own locks
+ * aren't profiled; opt in by creating the locks to measure here. When
+ * profiling is disabled, which is the default, a profiled lock costs one
+ * volatile read per lock and unlock over the lock it wraps. Holds that span
+ * a change of profiling state aren't recorded.
+ */
+public final class GLockProfiler {
+
+    private static final int WORST_WAITER_COUNT = 8;
+
+    private static final Map<String, Stats> statsByName = new ConcurrentHashMap<>();
+    // Positive while enabled, and different every time profiling is enabled.
+    private static volatile int session = 0;
+
+    /**
+     * Starts recording lock statistics.
+     */
+    public static synchronized void enable() {
+        if (session <= 0) {
+            session = 1 - session;
+        }
+    }
+
+    /**
+     * Stops recording lock statistics. Statistics recorded so far are kept.
+     */
+    public static synchronized void disable() {
+        if (session > 0) {
+            session = -session;
+        }
+    }
+
+    /**
+     * Returns whether lock statistics are being recorded.
+     *
+     * @return Whether lock statistics are being recorded.
+     */
+    public static boolean isEnabled() {
+        return session > 0;
+    }
+
+    /**
+     * Returns the current profiling session. Positive while enabled, and
+     * different every time profiling is enabled, so profiled locks can tell
+     * hold state left over from an earlier session.
+     *
+     * @return The current profiling session, or a non-positive value if disabled.
+     */
+    static int currentSession() {
+        return session;
+    }
+
+    /**
+     * Creates a profiled reentrant lock.
+     *
+     * @param name Name under which to record statistics.
+     * @return A profiled reentrant lock.
+     */
+    public static GProfiledLock newLock(final String name) {
+        return newLock(name, new ReentrantLock());
+    }
+
+    /**
+     * Creates a profiled lock that wraps the given lock.
+     *
+     * @param name Name under which to record statistics.
+     * @param lock Lock to wrap.
+     * @return A profiled lock.
+     */
+    public static GProfiledLock newLock(final String name, final Lock lock) {
+        return new GProfiledLock(statsByName.computeIfAbsent(name, Stats::new), lock, false);
+    }
+
+    /**
+     * Creates a profiled reentrant read/write lock.
+     *
+     * @param name Name under which to record statistics. Suffixed with {@code .read} and {@code .write}.
+     * @return A profiled reentrant read/write lock.
+     */
+    public static ReadWriteLock newReadWriteLock(final String name) {
+        return newReadWriteLock(name, new ReentrantReadWriteLock());
+    }
+
+    /**
+     * Creates a profiled read/write lock that wraps the given lock.
+     *
+     * @param name Name under which to record statistics. Suffixed with {@code .read} and {@code .write}.
+     * @param lock Lock to wrap.
+     * @return A profiled read/write lock.
+     */
+    public static ReadWriteLock newReadWriteLock(final String name, final ReadWriteLock lock) {
+        final GProfiledLock readLock = new GProfiledLock(statsByName.computeIfAbsent(name + ".read", Stats::new),
+                lock.readLock(), true);
+        final GProfiledLock writeLock = new GProfiledLock(statsByName.computeIfAbsent(name + ".write", Stats::new),
+                lock.writeLock(), false);
+        return new ReadWriteLock() {
+            @Override
+            public Lock readLock() {
+                return readLock;
+            }
+
+            @Override
+            public Lock writeLock() {
+                return writeLock;
+            }
+        };
+    }
+
+    /**
+     * Returns a point in time copy of the statistics of all named locks,
+     * most waited on first.
+     *
+     * @return A point in time copy of the statistics of all named locks.
+     */
+    public static List<Snapshot> snapshot() {
+        return statsByName.values().stream()
+                .map(Stats::snapshot)
+                .sorted(Comparator.comparingLong((Snapshot snapshot) -> snapshot.totalWaitNanos).reversed())
+                .toList();
+    }
+
+    /**
+     * Statistics shared by all locks of the same name.
+     */
+    static final class Stats {
+
+        private final String name;
+        private final LongAdder acquisitionCount = new LongAdder();
+        private final LongAdder contendedCount = new LongAdder();
+        private final LongAdder failedCount = new LongAdder();
+        private final LongAdder totalWaitNanos = new LongAdder();
+        private final GHistogram waitTime = new GHistogram();
+        private final GHistogram holdTime = new GHistogram();
+        private final Waiter[] worstWaiters = new Waiter[WORST_WAITER_COUNT];
+        // Shortest wait in the worst waiters once full, so most waits skip the synchronized update.
+        private volatile long worstWaiterThreshold = 0;
+
+        /**
+         * Creates empty statistics.
+         *
+         * @param name Lock name.
+         */
+        public Stats(final String name) {
+            this.name = name;
+        }
+
+        /**
+         * Records an acquisition.
+         *
+         * @param waitNanos Time waited for the lock. Zero if it was free.
+         */
+        public void recordAcquisition(final long waitNanos) {
+            acquisitionCount.increment();
+            if (waitNanos == 0) {
+                return;
+            }
+            contendedCount.increment();
+            totalWaitNanos.add(waitNanos);
+            waitTime.record(waitNanos);
+            if (waitNanos > worstWaiterThreshold) {
+                recordWorstWaiter(waitNanos);
+            }
+        }
+
+        /**
+         * Records a {@code tryLock} that didn't get the lock.
+         *
+         * @param waitNanos Time waited for the lock. Zero if it didn't wait.
+         */
+        public void recordFailedAttempt(final long waitNanos) {
+            contendedCount.increment();
+            failedCount.increment();
+            if (waitNanos > 0) {
+                totalWaitNanos.add(waitNanos);
+                waitTime.record(waitNanos);
+            }
+        }
+
+        /**
+         * Records how long the lock was held.
+         *
+         * @param holdNanos Time the lock was held.
+         */
+        public void recordHold(final long holdNanos) {
+            holdTime.record(holdNanos);
+        }
+
+        private synchronized void recordWorstWaiter(final long waitNanos) {
+            int slot = 0;
+            for (int i = 0; i < worstWaiters.length; ++i) {
+                if (worstWaiters[i] == null) {
+                    slot = i;
+                    break;
+                }
+                if (worstWaiters[i].waitNanos < worstWaiters[slot].waitNanos) {
+                    slot = i;
+                }
+            }
+            if ((worstWaiters[slot] != null) && (worstWaiters[slot].waitNanos >= waitNanos)) {
+                return;
+            }
+            worstWaiters[slot] = new Waiter(Thread.currentThread().getName(), waitNanos);
+            long threshold = Long.MAX_VALUE;
+            for (final Waiter waiter: worstWaiters) {
+                threshold = waiter == null ? 0 : Math.min(threshold, waiter.waitNanos);
+                if (threshold == 0) {
+                    break;
+                }
+            }
+            worstWaiterThreshold = threshold;
+        }
+
+        /**
+         * Returns a point in time copy of these statistics.
+         *
+         * @return A point in time copy of these statistics.
+         */
+        public Snapshot snapshot() {
+            final List<Waiter> waiters;
+            synchronized (this) {
+                waiters = Arrays.stream(worstWaiters)
+                        .filter(waiter -> waiter != null)
+                        .sorted(Comparator.comparingLong((Waiter waiter) -> waiter.waitNanos).reversed())
+                        .toList();
+            }
+            return new Snapshot(name, acquisitionCount.sum(), contendedCount.sum(), failedCount.sum(),
+                    totalWaitNanos.sum(), waitTime.snapshot(), holdTime.snapshot(), waiters);
+        }
+    }
+
+    /**
+     * A thread that waited long for a lock.
+     */
+    public static final class Waiter {
+
+        /**
+         * Name of the waiting thread.
+         */
+        public final String threadName;
+
+        /**
+         * Time the thread waited, in nanoseconds.
+         */
+        public final long waitNanos;
+
+        private Waiter(final String threadName, final long waitNanos) {
+            this.threadName = threadName;
+            this.waitNanos = waitNanos;
+        }
+
+        @Override
+        public String toString() {
+            return GStrings.format("%s: %,dns", threadName, waitNanos);
+        }
+    }
+
+    /**
+     * Immutable copy of the statistics of a named lock.
+     */
+    public static final class Snapshot {
+
+        /**
+         * Lock name.
+         */
+        public final String name;
+
+        /**
+         * Number of times the lock was acquired.
+         */
+        public final long acquisitionCount;
+
+        /**
+         * Number of attempts that found the lock held. Includes acquisitions
+         * that had to wait and failed {@code tryLock}s.
+         */
+        public final long contendedCount;
+
+        /**
+         * Number of {@code tryLock}s that didn't get the lock.
+         */
+        public final long failedCount;
+
+        /**
+         * Total time threads waited for the lock, in nanoseconds.
+         */
+        public final long totalWaitNanos;
+
+        /**
+         * Time contended acquisitions waited, in nanoseconds.
+         */
+        public final GHistogram.Snapshot waitTime;
+
+        /**
+         * Time the lock was held, in nanoseconds. Condition waits are not
+         * counted as held time.
+         */
+        public final GHistogram.Snapshot holdTime;
+
+        /**
+         * Longest waits, longest first.
+         */
+        public final List<Waiter> worstWaiters;
+
+        private Snapshot(final String name, final long acquisitionCount, final long contendedCount,
+                final long failedCount, final long totalWaitNanos, final GHistogram.Snapshot waitTime,
+                final GHistogram.Snapshot holdTime, final List<Waiter> worstWaiters) {
+            this.name = name;
+            this.acquisitionCount = acquisitionCount;
+            this.contendedCount = contendedCount;
+            this.failedCount = failedCount;
+            this.totalWaitNanos = totalWaitNanos;
+            this.waitTime = waitTime;
+            this.holdTime = holdTime;
+            this.worstWaiters = worstWaiters;
+        }
+
+        @Override
+        public String toString() {
+            return GStrings.format("%s: acquired=%,d contended=%,d failed=%,d wait=[%s] hold=[%s]",
+                    name, acquisitionCount, contendedCount, failedCount, waitTime, holdTime);
+        }
+    }
+
+    private GLockProfiler() {
+        // Hiding constructor.
+    }
+}
@@ -0,0 +1,26 @@
+// Copyright 2024 GlitchyByte
+// SPDX-License-Identifier: Apache-2.0
+
+package com.glitchybyte.glib.concurrent;
+
+/**
+ * What a cron schedule does when it fires too late.
+ *
+ * <p>A firing misfires when it happens well after its scheduled time. For
+ * example, because the process was suspended, the clock jumped, or the
+ * previous run took longer than the interval between firings. Either way,
+ * a schedule never runs a backlog of missed firings.
+ */
+public enum GMisfirePolicy {
+
+    /**
+     * Runs the task once right away for all missed firings, then continues
+     * on schedule. This is the policy used when none is given.
+     */
+    RUN_ONCE,
+
+    /**
+     * Skips all missed firings, and continues on schedule.
+     */
+    SKIP
+}
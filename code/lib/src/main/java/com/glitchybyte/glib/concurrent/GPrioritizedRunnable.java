@@ -0,0 +1,50 @@
+// Copyright 2024 GlitchyByte
+// SPDX-License-Identifier: Apache-2.0
+
+package com.glitchybyte.glib.concurrent;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link Runnable} ordered by priority with aging, for use in priority
+ * queues.
+ *
+ * <p>Each runnable gets a virtual deadline of its submission time plus the
+ * aging allowance of its priority. Runnables are ordered by virtual deadline,
+ * then by submission order. Because the order is fixed at submission, there
+ * is no need to re-sort the queue as tasks age.
+ */
+final class GPrioritizedRunnable implements Runnable, Comparable<GPrioritizedRunnable> {
+
+    private static final AtomicLong sequenceCount = new AtomicLong(0);
+
+    private final Runnable runnable;
+    private final long virtualDeadline;
+    private final long sequence = sequenceCount.getAndIncrement();
+
+    /**
+     * Creates a prioritized runnable.
+     *
+     * @param runnable {@link Runnable} to run.
+     * @param priority Priority of the runnable.
+     */
+    GPrioritizedRunnable(final Runnable runnable, final GTaskPriority priority) {
+        this.runnable = runnable;
+        virtualDeadline = System.nanoTime() + priority.getAgingNanos();
+    }
+
+    @Override
+    public void run() {
+        runnable.run();
+    }
+
+    @Override
+    public int compareTo(final GPrioritizedRunnable other) {
+        // Subtract to be safe from nanoTime overflow.
+        final long difference = virtualDeadline - other.virtualDeadline;
+        if (difference != 0) {
+            return difference < 0 ? -1 : 1;
+        }
+        return Long.compare(sequence, other.sequence);
+    }
+}
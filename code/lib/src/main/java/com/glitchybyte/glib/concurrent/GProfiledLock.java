@@ -0,0 +1,303 @@
+// Copyright 2024 GlitchyByte
+// SPDX-License-Identifier: Apache-2.0
+
+package com.glitchybyte.glib.concurrent;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * A lock that records contention statistics into the {@link GLockProfiler}.
+ *
+ * <p>Create it with {@link GLockProfiler#newLock(String)}. It behaves as the
+ * lock it wraps, and only records while profiling is enabled.
+ *
+ * <p>An acquisition counts as contended if the lock wasn't free right away.
+ * A failed {@code tryLock} counts as contended too, so hot try-lock sites
+ * show up. Time spent waiting on one of its conditions doesn't count as held
+ * time.
+ */
+public final class GProfiledLock implements Lock {
+
+    private final GLockProfiler.Stats stats;
+    private final Lock lock;
+    // Only changed by the thread holding the lock. Null for shared locks.
+    private final HoldState exclusiveHold;
+    // Per thread, as many threads can hold a shared lock at once. Null for exclusive locks.
+    private final ThreadLocal<HoldState> sharedHold;
+
+    /**
+     * Creates a profiled lock.
+     *
+     * @param stats Statistics to record into.
+     * @param lock Lock to wrap.
+     * @param isShared True, if many threads can hold the lock at once, like a read lock.
+     */
+    GProfiledLock(final GLockProfiler.Stats stats, final Lock lock, final boolean isShared) {
+        this.stats = stats;
+        this.lock = lock;
+        exclusiveHold = isShared ? null : new HoldState();
+        sharedHold = isShared ? ThreadLocal.withInitial(HoldState::new) : null;
+    }
+
+    private HoldState hold() {
+        return exclusiveHold != null ? exclusiveHold : sharedHold.get();
+    }
+
+    /**
+     * Returns the hold state if the current thread holds the lock as
+     * recorded in the given session.
+     *
+     * @param session Profiling session.
+     * @return The hold state, or null if the current thread's hold isn't recorded.
+     */
+    private HoldState recordedHold(final int session) {
+        final HoldState hold = hold();
+        // The owner is only ever set by a thread to itself, so another thread never sees itself here.
+        return (hold.session == session) && (hold.count > 0) && (hold.owner == Thread.currentThread()) ?
+                hold : null;
+    }
+
+    @Override
+    public void lock() {
+        final int session = GLockProfiler.currentSession();
+        if (session <= 0) {
+            lock.lock();
+            return;
+        }
+        if (tryLockFairly()) {
+            acquired(session, 0);
+            return;
+        }
+        final long start = System.nanoTime();
+        lock.lock();
+        acquired(session, Math.max(System.nanoTime() - start, 1));
+    }
+
+    @Override
+    public void lockInterruptibly() throws InterruptedException {
+        final int session = GLockProfiler.currentSession();
+        if (session <= 0) {
+            lock.lockInterruptibly();
+            return;
+        }
+        if (tryLockFairly()) {
+            acquired(session, 0);
+            return;
+        }
+        final long start = System.nanoTime();
+        lock.lockInterruptibly();
+        acquired(session, Math.max(System.nanoTime() - start, 1));
+    }
+
+    @Override
+    public boolean tryLock() {
+        final int session = GLockProfiler.currentSession();
+        if (!lock.tryLock()) {
+            if (session > 0) {
+                stats.recordFailedAttempt(0);
+            }
+            return false;
+        }
+        if (session > 0) {
+            acquired(session, 0);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean tryLock(final long time, final TimeUnit unit) throws InterruptedException {
+        final int session = GLockProfiler.currentSession();
+        if (session <= 0) {
+            return lock.tryLock(time, unit);
+        }
+        if (tryLockFairly()) {
+            acquired(session, 0);
+            return true;
+        }
+        final long start = System.nanoTime();
+        if (!lock.tryLock(time, unit)) {
+            stats.recordFailedAttempt(System.nanoTime() - start);
+            return false;
+        }
+        acquired(session, Math.max(System.nanoTime() - start, 1));
+        return true;
+    }
+
+    @Override
+    public void unlock() {
+        final int session = GLockProfiler.currentSession();
+        if (session > 0) {
+            // Only the recorded owner touches the hold state. Anyone else gets the wrapped lock's exception below.
+            final HoldState hold = recordedHold(session);
+            if ((hold != null) && (--hold.count == 0)) {
+                release(hold);
+            }
+        }
+        lock.unlock();
+    }
+
+    @Override
+    public Condition newCondition() {
+        return new ProfiledCondition(lock.newCondition());
+    }
+
+    /**
+     * Tries to acquire the lock right away without barging ahead of waiters
+     * of a fair lock.
+     *
+     * @return True if the lock was acquired.
+     */
+    private boolean tryLockFairly() {
+        try {
+            return lock.tryLock(0, TimeUnit.NANOSECONDS);
+        } catch (final InterruptedException e) {
+            // Leave it for the caller's blocking acquisition to deal with.
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void acquired(final int session, final long waitNanos) {
+        final HoldState hold = hold();
+        if (hold.session != session) {
+            // Left over from an earlier session. Start over.
+            hold.session = session;
+            hold.count = 0;
+        }
+        if (hold.count++ != 0) {
+            // Reentrant acquisition.
+            return;
+        }
+        hold.owner = Thread.currentThread();
+        stats.recordAcquisition(waitNanos);
+        hold.since = System.nanoTime();
+    }
+
+    private void release(final HoldState hold) {
+        hold.owner = null;
+        stats.recordHold(System.nanoTime() - hold.since);
+    }
+
+    /**
+     * Stops the hold timer before the lock is released by a condition wait.
+     *
+     * @return Hold count to restore, or zero if the hold isn't recorded.
+     */
+    private int suspendHold() {
+        final int session = GLockProfiler.currentSession();
+        if (session <= 0) {
+            return 0;
+        }
+        final HoldState hold = recordedHold(session);
+        if (hold == null) {
+            return 0;
+        }
+        final int count = hold.count;
+        hold.count = 0;
+        release(hold);
+        return count;
+    }
+
+    /**
+     * Restarts the hold timer once a condition wait reacquires the lock.
+     *
+     * @param count Hold count to restore.
+     */
+    private void resumeHold(final int count) {
+        final int session = GLockProfiler.currentSession();
+        if ((count == 0) || (session <= 0)) {
+            return;
+        }
+        final HoldState hold = hold();
+        hold.session = session;
+        hold.count = count;
+        hold.owner = Thread.currentThread();
+        hold.since = System.nanoTime();
+    }
+
+    /**
+     * How a thread holds the lock, as recorded while profiling.
+     */
+    private static final class HoldState {
+
+        public int session = 0;
+        public int count = 0;
+        public Thread owner = null;
+        public long since = 0;
+    }
+
+    /**
+     * A condition that pauses the hold timer while waiting.
+     */
+    private final class ProfiledCondition implements Condition {
+
+        private final Condition condition;
+
+        public ProfiledCondition(final Condition condition) {
+            this.condition = condition;
+        }
+
+        @Override
+        public void await() throws InterruptedException {
+            final int count = suspendHold();
+            try {
+                condition.await();
+            } finally {
+                resumeHold(count);
+            }
+        }
+
+        @Override
+        public void awaitUninterruptibly() {
+            final int count = suspendHold();
+            try {
+                condition.awaitUninterruptibly();
+            } finally {
+                resumeHold(count);
+            }
+        }
+
+        @Override
+        public long awaitNanos(final long nanosTimeout) throws InterruptedException {
+            final int count = suspendHold();
+            try {
+                return condition.awaitNanos(nanosTimeout);
+            } finally {
+                resumeHold(count);
+            }
+        }
+
+        @Override
+        public boolean await(final long time, final TimeUnit unit) throws InterruptedException {
+            final int count = suspendHold();
+            try {
+                return condition.await(time, unit);
+            } finally {
+                resumeHold(count);
+            }
+        }
+
+        @Override
+        public boolean awaitUntil(final Date deadline) throws InterruptedException {
+            final int count = suspendHold();
+            try {
+                return condition.awaitUntil(deadline);
+            } finally {
+                resumeHold(count);
+            }
+        }
+
+        @Override
+        public void signal() {
+            condition.signal();
+        }
+
+        @Override
+        public void signalAll() {
+            condition.signalAll();
+        }
+    }
+}
@@ -0,0 +1,188 @@
+// Copyright 2024 GlitchyByte
+// SPDX-License-Identifier: Apache-2.0
+
+package com.glitchybyte.glib.concurrent;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token bucket rate limiter.
+ *
+ * <p>Permits accrue at a steady rate up to the burst size, so short bursts go
+ * through right away while the long term rate stays bounded.
+ *
+ * <p>{@link #tryAcquire()} never waits. {@link #acquire()} reserves permits
+ * right away and returns a future that completes when they are due, so
+ * callers wait in line without holding a thread. The rate can be changed at
+ * any time with {@link #setRate(double)} to follow downstream capacity.
+ */
+public final class GRateLimiter {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private final Lock lock = new ReentrantLock();
+    private final double burst;
+    private double permitsPerSecond;
+    // Negative when permits have been reserved ahead of time.
+    private double availablePermits;
+    private long lastRefillTime;
+
+    /**
+     * Creates a rate limiter that starts with a full bucket.
+     *
+     * @param permitsPerSecond Permits added per second.
+     * @param burst Maximum permits that can accumulate.
+     */
+    public GRateLimiter(final double permitsPerSecond, final int burst) {
+        checkRate(permitsPerSecond);
+        if (burst < 1) {
+            throw new IllegalArgumentException("burst must be positive!");
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.burst = burst;
+        availablePermits = burst;
+        lastRefillTime = System.nanoTime();
+    }
+
+    /**
+     * Creates a rate limiter with a burst of one second worth of permits.
+     *
+     * @param permitsPerSecond Permits added per second.
+     */
+    public GRateLimiter(final double permitsPerSecond) {
+        this(permitsPerSecond, (int) Math.max(1, Math.ceil(permitsPerSecond)));
+    }
+
+    /**
+     * Returns the permits added per second.
+     *
+     * @return The permits added per second.
+     */
+    public double getRate() {
+        return GLock.lockedResult(lock, () -> permitsPerSecond);
+    }
+
+    /**
+     * Changes the permits added per second. Permits accrued so far are kept.
+     *
+     * @param permitsPerSecond Permits added per second.
+     */
+    public void setRate(final double permitsPerSecond) {
+        checkRate(permitsPerSecond);
+        GLock.locked(lock, () -> {
+            refill(System.nanoTime());
+            this.permitsPerSecond = permitsPerSecond;
+        });
+    }
+
+    /**
+     * Acquires a permit if one is available right now.
+     *
+     * @return True if the permit was acquired.
+     */
+    public boolean tryAcquire() {
+        return tryAcquire(1);
+    }
+
+    /**
+     * Acquires permits if they are available right now.
+     *
+     * @param permits Number of permits.
+     * @return True if the permits were acquired.
+     */
+    public boolean tryAcquire(final int permits) {
+        checkPermits(permits);
+        return GLock.lockedResult(lock, () -> {
+            refill(System.nanoTime());
+            if (availablePermits < permits) {
+                return false;
+            }
+            availablePermits -= permits;
+            return true;
+        });
+    }
+
+    /**
+     * Reserves a permit.
+     *
+     * @return A future that completes when the permit is due.
+     */
+    public CompletableFuture<Void> acquire() {
+        return acquire(1);
+    }
+
+    /**
+     * Reserves permits. Reservations are served in order, and a reservation
+     * larger than the burst is allowed; it just delays the ones after it.
+     *
+     * @param permits Number of permits.
+     * @return A future that completes when the permits are due.
+     */
+    public CompletableFuture<Void> acquire(final int permits) {
+        checkPermits(permits);
+        final long waitNanos = GLock.lockedResult(lock, () -> {
+            refill(System.nanoTime());
+            availablePermits -= permits;
+            return availablePermits >= 0 ? 0L :
+                    (long) Math.ceil(-availablePermits * NANOS_PER_SECOND / permitsPerSecond);
+        });
+        if (waitNanos == 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        final Executor delayed = CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS);
+        return CompletableFuture.runAsync(() -> {}, delayed);
+    }
+
+    /**
+     * Submits a {@link Runnable} to the runner once a permit is due.
+     *
+     * <p>If the runner rejects the task, the returned future completes
+     * exceptionally with a {@link RejectedExecutionException}.
+     *
+     * @param runner Runner on which to run.
+     * @param runnable A {@link Runnable} to execute.
+     * @return A {@link CompletableFuture<Void>} representing pending completion of the task.
+     */
+    public CompletableFuture<Void> run(final GTaskRunner runner, final Runnable runnable) {
+        return acquire().thenCompose(ignored -> runner.run(runnable));
+    }
+
+    /**
+     * Submits a {@link Callable} to the runner once a permit is due.
+     *
+     * <p>If the runner rejects the task, the returned future completes
+     * exceptionally with a {@link RejectedExecutionException}.
+     *
+     * @param runner Runner on which to run.
+     * @param callable A {@link Callable} to execute.
+     * @return A {@link CompletableFuture} representing pending completion of the task.
+     * @param <V> Type of task result.
+     */
+    public <V> CompletableFuture<V> call(final GTaskRunner runner, final Callable<V> callable) {
+        return acquire().thenCompose(ignored -> runner.call(callable));
+    }
+
+    private void refill(final long now) {
+        final double accrued = (now - lastRefillTime) * permitsPerSecond / NANOS_PER_SECOND;
+        availablePermits = Math.min(burst, availablePermits + accrued);
+        lastRefillTime = now;
+    }
+
+    private static void checkRate(final double permitsPerSecond) {
+        if (!(permitsPerSecond > 0) || Double.isInfinite(permitsPerSecond)) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive!");
+        }
+    }
+
+    private static void checkPermits(final int permits) {
+        if (permits < 1) {
+            throw new IllegalArgumentException("permits must be positive!");
+        }
+    }
+}
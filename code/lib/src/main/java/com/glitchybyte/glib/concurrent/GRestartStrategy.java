@@ -0,0 +1,22 @@
+// Copyright 2024 GlitchyByte
+// SPDX-License-Identifier: Apache-2.0
+
+package com.glitchybyte.glib.concurrent;
+
+/**
+ * Which children a {@link GSupervisor} restarts when one of them fails.
+ */
+public enum GRestartStrategy {
+
+    /**
+     * Restarts only the failed child. For children that are independent of
+     * each other. This is the strategy used when none is given.
+     */
+    ONE_FOR_ONE,
+
+    /**
+     * Stops all other children, and restarts all of them together. For
+     * children that depend on each other, like the stages of a pipeline.
+     */
+    ONE_FOR_ALL
+}
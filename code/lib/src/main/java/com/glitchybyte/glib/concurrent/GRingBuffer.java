@@ -0,0 +1,314 @@
+// Copyright 2024 GlitchyByte
+// SPDX-License-Identifier: Apache-2.0
+
+package com.glitchybyte.glib.concurrent;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * A bounded, lock-free queue on a preallocated ring of slots.
+ *
+ * <p>Each slot carries a sequence number that tells producers and consumers
+ * whose turn it is, so handing off an item allocates nothing and, with a
+ * single producer or consumer, takes no atomic read-modify-write on that
+ * side. The producer and consumer positions are kept on separate cache
+ * lines, so each side doesn't slow the other down.
+ *
+ * <p>{@link #drain(Consumer, int)} and {@link #takeBatch(Consumer, int)} hand
+ * all ready items to the consumer in one pass, which amortizes the waiting
+ * and keeps the consumer's cache warm.
+ *
+ * <p>Blocking operations wait with the given {@link GWaitStrategy}. Null
+ * items are not allowed.
+ *
+ * @param <T> Type of item.
+ */
+public final class GRingBuffer<T> {
+
+    /**
+     * Who can use the ring buffer concurrently. The more restricted, the
+     * cheaper. Using it beyond its mode corrupts it.
+     */
+    public enum Mode {
+
+        /**
+         * A single producer thread and a single consumer thread.
+         */
+        SPSC,
+
+        /**
+         * Many producer threads and a single consumer thread.
+         */
+        MPSC,
+
+        /**
+         * Many producer threads and many consumer threads.
+         */
+        MPMC
+    }
+
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    // 128 bytes apart, so each position sits alone in its cache line, even with adjacent line prefetching.
+    private static final int PADDING = 16;
+    private static final int TAIL = PADDING;
+    private static final int HEAD = PADDING * 2;
+
+    private final Object[] items;
+    private final long[] sequences;
+    private final long[] positions = new long[PADDING * 3];
+    private final int mask;
+    private final boolean isSingleProducer;
+    private final boolean isSingleConsumer;
+    private final GWaitStrategy waitStrategy;
+    private final AtomicInteger waiterCount = new AtomicInteger(0);
+    private final Lock waitLock = new ReentrantLock();
+    private final Condition changedSignal = waitLock.newCondition();
+
+    /**
+     * Creates a ring buffer.
+     *
+     * @param capacity Number of slots. Rounded up to a power of two.
+     * @param mode Who can use it concurrently.
+     * @param waitStrategy How blocking operations wait.
+     */
+    public GRingBuffer(final int capacity, final Mode mode, final GWaitStrategy waitStrategy) {
+        if ((capacity < 1) || (capacity > (1 << 30))) {
+            throw new IllegalArgumentException("capacity must be between 1 and 2^30!");
+        }
+        final int size = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+        items = new Object[size];
+        sequences = new long[size];
+        for (int i = 0; i < size; ++i) {
+            sequences[i] = i;
+        }
+        mask = size - 1;
+        isSingleProducer = mode == Mode.SPSC;
+        isSingleConsumer = mode != Mode.MPMC;
+        this.waitStrategy = waitStrategy;
+    }
+
+    /**
+     * Creates a many producers, many consumers ring buffer that parks when
+     * waiting.
+     *
+     * @param capacity Number of slots. Rounded up to a power of two.
+     */
+    public GRingBuffer(final int capacity) {
+        this(capacity, Mode.MPMC, GWaitStrategy.PARK);
+    }
+
+    /**
+     * Returns the number of slots.
+     *
+     * @return The number of slots.
+     */
+    public int capacity() {
+        return items.length;
+    }
+
+    /**
+     * Returns the number of items in the buffer. It's only an estimate while
+     * other threads are using it.
+     *
+     * @return The number of items in the buffer.
+     */
+    public int size() {
+        final long head = (long) LONGS.getVolatile(positions, HEAD);
+        final long tail = (long) LONGS.getVolatile(positions, TAIL);
+        return (int) Math.max(0, Math.min(tail - head, items.length));
+    }
+
+    /**
+     * Returns whether the buffer is empty. It's only an estimate while other
+     * threads are using it.
+     *
+     * @return Whether the buffer is empty.
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Adds an item if there is room.
+     *
+     * @param item Item to add.
+     * @return True if the item was added. False if the buffer is full.
+     */
+    public boolean offer(final T item) {
+        if (item == null) {
+            throw new IllegalArgumentException("Item can't be null!");
+        }
+        long position = (long) LONGS.getVolatile(positions, TAIL);
+        while (true) {
+            final long sequence = (long) LONGS.getAcquire(sequences, (int) (position & mask));
+            final long difference = sequence - position;
+            if (difference == 0) {
+                if (isSingleProducer) {
+                    LONGS.setVolatile(positions, TAIL, position + 1);
+                    break;
+                }
+                if (LONGS.compareAndSet(positions, TAIL, position, position + 1)) {
+                    break;
+                }
+                position = (long) LONGS.getVolatile(positions, TAIL);
+            } else if (difference < 0) {
+                // The slot still holds the item from the previous lap.
+                return false;
+            } else {
+                position = (long) LONGS.getVolatile(positions, TAIL);
+            }
+        }
+        final int index = (int) (position & mask);
+        items[index] = item;
+        LONGS.setRelease(sequences, index, position + 1);
+        signalWaiters();
+        return true;
+    }
+
+    /**
+     * Adds an item, waiting for room if the buffer is full.
+     *
+     * @param item Item to add.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    public void put(final T item) throws InterruptedException {
+        while (!offer(item)) {
+            await(() -> size() < items.length);
+        }
+    }
+
+    /**
+     * Removes the oldest item, if there is one.
+     *
+     * @return The oldest item, or null if the buffer is empty.
+     */
+    @SuppressWarnings("unchecked")
+    public T poll() {
+        long position = (long) LONGS.getVolatile(positions, HEAD);
+        while (true) {
+            final long sequence = (long) LONGS.getAcquire(sequences, (int) (position & mask));
+            final long difference = sequence - (position + 1);
+            if (difference == 0) {
+                if (isSingleConsumer) {
+                    LONGS.setVolatile(positions, HEAD, position + 1);
+                    break;
+                }
+                if (LONGS.compareAndSet(positions, HEAD, position, position + 1)) {
+                    break;
+                }
+                position = (long) LONGS.getVolatile(positions, HEAD);
+            } else if (difference < 0) {
+                // The slot hasn't been published yet.
+                return null;
+            } else {
+                position = (long) LONGS.getVolatile(positions, HEAD);
+            }
+        }
+        final int index = (int) (position & mask);
+        final T item = (T) items[index];
+        items[index] = null;
+        LONGS.setRelease(sequences, index, position + items.length);
+        signalWaiters();
+        return item;
+    }
+
+    /**
+     * Removes the oldest item, waiting for one if the buffer is empty.
+     *
+     * @return The oldest item.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    public T take() throws InterruptedException {
+        T item;
+        while ((item = poll()) == null) {
+            await(() -> size() > 0);
+        }
+        return item;
+    }
+
+    /**
+     * Removes up to the given number of ready items, oldest first, and hands
+     * them to the consumer.
+     *
+     * @param consumer Consumer of the items.
+     * @param maxItems Maximum number of items to remove.
+     * @return The number of items removed.
+     */
+    public int drain(final Consumer<? super T> consumer, final int maxItems) {
+        int count = 0;
+        T item;
+        while ((count < maxItems) && ((item = poll()) != null)) {
+            consumer.accept(item);
+            ++count;
+        }
+        return count;
+    }
+
+    /**
+     * Waits until there are items, then removes up to the given number of
+     * ready items, oldest first, and hands them to the consumer.
+     *
+     * @param consumer Consumer of the items.
+     * @param maxItems Maximum number of items to remove.
+     * @return The number of items removed. At least one.
+     * @throws InterruptedException If interrupted while waiting.
+     */
+    public int takeBatch(final Consumer<? super T> consumer, final int maxItems) throws InterruptedException {
+        if (maxItems < 1) {
+            throw new IllegalArgumentException("maxItems must be positive!");
+        }
+        consumer.accept(take());
+        return 1 + drain(consumer, maxItems - 1);
+    }
+
+    private void await(final BooleanSupplier test) throws InterruptedException {
+        switch (waitStrategy) {
+            case BUSY_SPIN -> {
+                while (!test.getAsBoolean()) {
+                    checkInterrupted();
+                    Thread.onSpinWait();
+                }
+            }
+            case YIELD -> {
+                while (!test.getAsBoolean()) {
+                    checkInterrupted();
+                    Thread.yield();
+                }
+            }
+            case PARK -> {
+                // Registering first means any change made after the test below will signal us.
+                waiterCount.incrementAndGet();
+                try {
+                    GLock.awaitConditionWithTest(waitLock, changedSignal, test);
+                } finally {
+                    waiterCount.decrementAndGet();
+                }
+            }
+        }
+    }
+
+    private static void checkInterrupted() throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+    }
+
+    private void signalWaiters() {
+        if (waitStrategy != GWaitStrategy.PARK) {
+            return;
+        }
+        // Orders our position update before reading the waiter count, pairing with the waiter's registration.
+        VarHandle.fullFence();
+        if (waiterCount.get() > 0) {
+            GLock.signalAll(waitLock, changedSignal);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+// Copyright 2024 GlitchyByte
+// SPDX-License-Identifier: Apache-2.0
+
+package com.glitchybyte.glib.concurrent;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * A fixed set of read/write locks shared by keys.
+ *
+ * <p>Each key maps to one stripe by its hash. Keys on different stripes
+ * don't contend, and memory stays fixed no matter how many keys there are,
+ * unlike a map of locks per key. Keys that share a stripe do contend, so
+ * size it to a few times the expected number of concurrent threads.
+ *
+ * <p>Operations on multiple keys lock their stripes in index order, so they
+ * can't deadlock with each other.
+ *
+ * <p>Each stripe's lock is allocated between padding, so neighboring stripes
+ * don't share cache lines and don't slow each other down under heavy writes.
+ */
+public final class GStripedLock {
+
+    /**
+     * Two cache lines of longs, which also covers adjacent line prefetching.
+     */
+    private static final int PADDING = 16;
+
+    /**
+     * A stripe's lock, allocated between padding.
+     *
+     * <p>The lock's state lives in objects it allocates itself, so padding
+     * fields here wouldn't separate it. Instead, padding arrays are allocated
+     * right before and after the lock, and kept alive with it.
+     */
+    private static final class Stripe {
+
+        @SuppressWarnings("unused")
+        private final long[] leadingPadding = new long[PADDING];
+        public final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        @SuppressWarnings("unused")
+        private final long[] trailingPadding = new long[PADDING];
+    }
+
+    private final Stripe[] stripes;
+    private final int mask;
+
+    /**
+     * Creates a striped lock.
+     *
+     * @param stripeCount Number of stripes. Rounded up to a power of two.
+     */
+    public GStripedLock(final int stripeCount) {
+        if ((stripeCount < 1) || (stripeCount > (1 << 30))) {
+            throw new IllegalArgumentException("stripeCount must be between 1 and 2^30!");
+        }
+        final int size = Integer.highestOneBit(stripeCount) == stripeCount ?
+                stripeCount : Integer.highestOneBit(stripeCount) << 1;
+        stripes = new Stripe[size];
+        for (int i = 0; i < size; ++i) {
+            stripes[i] = new Stripe();
+        }
+        mask = size - 1;
+    }
+
+    /**
+     * Creates a striped lock with 4 stripes per available processor.
+     */
+    public GStripedLock() {
+        this(Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    /**
+     * Returns the number of stripes.
+     *
+     * @return The number of stripes.
+     */
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    /**
+     * Returns the lock for the given key.
+     *
+     * @param key Key. Can be null.
+     * @return The lock for the given key.
+     */
+    public ReadWriteLock getLock(final Object key) {
+        return stripes[indexOf(key)].lock;
+    }
+
+    /**
+     * Run a block of code while holding the write-lock of a key.
+     *
+     * @param key Key.
+     * @param runnable Block of code.
+     */
+    public void locked(final Object key, final Runnable runnable) {
+        GLock.writeLocked(getLock(key), runnable);
+    }
+
+    /**
+     * Run a block of code, with a return value, while holding the
+     * write-lock of a key.
+     *
+     * @param key Key.
+     * @param supplier Block of code.
+     * @return Value returned by the block.
+     * @param <V> Type of the return value.
+     */
+    public <V> V lockedResult(final Object key, final Supplier<V> supplier) {
+        return GLock.writeLockedResult(getLock(key), supplier);
+    }
+
+    /**
+     * Run a block of code while holding the read-lock of a key.
+     *
+     * @param key Key.
+     * @param runnable Block of code.
+     */
+    public void readLocked(final Object key, final Runnable runnable) {
+        GLock.readLocked(getLock(key), runnable);
+    }
+
+    /**
+     * Run a block of code, with a return value, while holding the read-lock
+     * of a key.
+     *
+     * @param key Key.
+     * @param supplier Block of code.
+     * @return Value returned by the block.
+     * @param <V> Type of the return value.
+     */
+    public <V> V readLockedResult(final Object key, final Supplier<V> supplier) {
+        return GLock.readLockedResult(getLock(key), supplier);
+    }
+
+    /**
+     * Run a block of code while holding the write-locks of all given keys.
+     *
+     * @param keys Keys.
+     * @param runnable Block of code.
+     */
+    public void lockedAll(final Collection<?> keys, final Runnable runnable) {
+        lockedAllResult(keys, () -> {
+            runnable.run();
+            return null;
+        });
+    }
+
+    /**
+     * Run a block of code, with a return value, while holding the
+     * write-locks of all given keys.
+     *
+     * @param keys Keys.
+     * @param supplier Block of code.
+     * @return Value returned by the block.
+     * @param <V> Type of the return value.
+     */
+    public <V> V lockedAllResult(final Collection<?> keys, final Supplier<V> supplier) {
+        final int[] indices = sortedDistinctIndices(keys);
+        int locked = 0;
+        try {
+            for (final int index: indices) {
+                stripes[index].lock.writeLock().lock();
+                ++locked;
+            }
+            return supplier.get();
+        } finally {
+            for (int i = locked - 1; i >= 0; --i) {
+                stripes[indices[i]].lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private int[] sortedDistinctIndices(final Collection<?> keys) {
+        final int[] indices = new int[keys.size()];
+        int i = 0;
+        for (final Object key: keys) {
+            indices[i++] = indexOf(key);
+        }
+        Arrays.sort(indices);
+        int count = 0;
+        for (int j = 0; j < indices.length; ++j) {
+            if ((count == 0) || (indices[count - 1] != indices[j])) {
+                indices[count++] = indices[j];
+            }
+        }
+        return count == indices.length ? indices : Arrays.copyOf(indices, count);
+    }
+
+    private int indexOf(final Object key) {
+        // Spread the hash so keys with poor low bits still use all stripes.
+        final int hash = Objects.hashCode(key) * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,388 @@
+// Copyright 2024 GlitchyByte
+// SPDX-License-Identifier: Apache-2.0
+
+package com.glitchybyte.glib.concurrent;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * A task that keeps a set of child tasks running, restarting them when they
+ * fail.
+ *
+ * <p>Children are given as factories, as a {@link GTask} can't be run twice.
+ * A child that ends with an exception is restarted according to the
+ * {@link GRestartStrategy}, after an exponential backoff. A child that ends
+ * normally is considered finished and is not restarted.
+ *
+ * <p>If children fail more than the maximum restart intensity, that is more
+ * than a number of restarts within a period, the supervisor stops all its
+ * children and fails itself. It also fails if a restart can't be submitted,
+ * like when its runner is closing. As a supervisor is a {@link GTask}, it can be
+ * the child of another supervisor, which then decides what to do. This forms
+ * supervision trees.
+ *
+ * <p>Interrupting the supervisor stops it, interrupting all children and
+ * waiting for them to end.
+ */
+public final class GSupervisor extends GTask {
+
+    private final GRestartStrategy strategy;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+    private final int maxRestarts;
+    private final long restartPeriodNanos;
+    private final List<Supplier<? extends GTask>> childFactories;
+    private final Child[] children;
+    private final Deque<Long> restartTimes = new ArrayDeque<>();
+    private final Lock lock = new ReentrantLock();
+    private final Condition failedSignal = lock.newCondition();
+    private boolean isStopping = false;
+    private String failureMessage = null;
+    private Throwable failure = null;
+
+    private GSupervisor(final Builder builder) {
+        super(builder.threadName);
+        strategy = builder.strategy;
+        initialBackoffNanos = builder.initialBackoff.toNanos();
+        maxBackoffNanos = builder.maxBackoff.toNanos();
+        maxRestarts = builder.maxRestarts;
+        restartPeriodNanos = builder.restartPeriod.toNanos();
+        childFactories = builder.childFactories;
+        children = new Child[childFactories.size()];
+        for (int i = 0; i < children.length; ++i) {
+            children[i] = new Child();
+        }
+    }
+
+    @Override
+    public void run() {
+        GLock.locked(lock, () -> {
+            for (int slot = 0; slot < children.length; ++slot) {
+                startChild(slot);
+            }
+        });
+        started();
+        try {
+            GLock.awaitConditionWithTest(lock, failedSignal, () -> failure != null);
+        } catch (final InterruptedException e) {
+            // Asked to stop.
+        }
+        final List<GTask> running = GLock.lockedResult(lock, () -> {
+            isStopping = true;
+            final List<GTask> tasks = new ArrayList<>(children.length);
+            for (final Child child: children) {
+                tasks.add(child.task);
+            }
+            return tasks;
+        });
+        stopTasks(running);
+        final Throwable cause = GLock.lockedResult(lock, () -> failure);
+        if (cause != null) {
+            throw new IllegalStateException(failureMessage, cause);
+        }
+    }
+
+    /**
+     * Returns how many times children have been restarted.
+     *
+     * @return How many times children have been restarted.
+     */
+    public int getRestartCount() {
+        return GLock.lockedResult(lock, () -> {
+            int count = 0;
+            for (final Child child: children) {
+                count += child.restartCount;
+            }
+            return count;
+        });
+    }
+
+    /**
+     * Creates and starts the child in the given slot. Must be called with
+     * the lock held.
+     *
+     * @param slot Child slot.
+     */
+    private void startChild(final int slot) {
+        final Child child = children[slot];
+        final GTask task = childFactories.get(slot).get();
+        final int generation = child.generation;
+        child.task = task;
+        getTaskRunner().startAsync(task);
+        task.getCompletion().whenComplete((ignored, throwable) -> onChildExit(slot, generation, throwable));
+    }
+
+    private void onChildExit(final int slot, final int generation, final Throwable throwable) {
+        GLock.locked(lock, () -> {
+            if (isStopping || (failure != null) || (children[slot].generation != generation) || (throwable == null)) {
+                // Stopping, superseded by a restart, or finished normally.
+                return;
+            }
+            final long now = System.nanoTime();
+            while (!restartTimes.isEmpty() && ((now - restartTimes.peekFirst()) > restartPeriodNanos)) {
+                restartTimes.pollFirst();
+            }
+            if (restartTimes.size() >= maxRestarts) {
+                fail("Maximum restart intensity exceeded!", throwable);
+                return;
+            }
+            final long delayNanos = backoffNanos(initialBackoffNanos, maxBackoffNanos, restartTimes.size());
+            restartTimes.addLast(now);
+            final int[] slots = strategy == GRestartStrategy.ONE_FOR_ONE ? new int[] { slot } : allSlots();
+            final List<GTask> stopping = new ArrayList<>(slots.length);
+            final int[] generations = new int[slots.length];
+            for (int i = 0; i < slots.length; ++i) {
+                final Child child = children[slots[i]];
+                generations[i] = ++child.generation;
+                ++child.restartCount;
+                stopping.add(child.task);
+            }
+            stopTasksAsync(stopping).thenRunAsync(
+                    () -> restartChildren(slots, generations),
+                    CompletableFuture.delayedExecutor(delayNanos, TimeUnit.NANOSECONDS, this::submitRestart)
+            );
+        });
+    }
+
+    private void submitRestart(final Runnable restart) {
+        try {
+            getTaskRunner().execute(restart);
+        } catch (final RejectedExecutionException e) {
+            // Thrown on the delayer thread, where nobody would see it.
+            GLock.locked(lock, () -> {
+                if (!isStopping && (failure == null)) {
+                    fail("Restart was rejected!", e);
+                }
+            });
+        }
+    }
+
+    private void restartChildren(final int[] slots, final int[] generations) {
+        GLock.locked(lock, () -> {
+            if (isStopping || (failure != null)) {
+                return;
+            }
+            try {
+                for (int i = 0; i < slots.length; ++i) {
+                    // A newer failure may have taken over this restart.
+                    if (children[slots[i]].generation == generations[i]) {
+                        startChild(slots[i]);
+                    }
+                }
+            } catch (final RuntimeException e) {
+                // A child can't be created or submitted. Give up.
+                fail("Child can't be restarted!", e);
+            }
+        });
+    }
+
+    /**
+     * Fails the supervisor. Must be called with the lock held.
+     *
+     * @param message Failure message.
+     * @param cause Failure cause.
+     */
+    private void fail(final String message, final Throwable cause) {
+        failureMessage = message;
+        failure = cause;
+        failedSignal.signalAll();
+    }
+
+    /**
+     * Returns the backoff before a restart. It doubles with every recent
+     * restart, and saturates at the max instead of overflowing.
+     *
+     * @param initialBackoffNanos Backoff before the first restart.
+     * @param maxBackoffNanos Maximum backoff.
+     * @param restartCount Number of restarts within the restart period.
+     * @return The backoff before the restart.
+     */
+    static long backoffNanos(final long initialBackoffNanos, final long maxBackoffNanos, final int restartCount) {
+        // Shifting past the leading zeros, minus the sign bit, would overflow.
+        if (restartCount >= (Long.numberOfLeadingZeros(initialBackoffNanos) - 1)) {
+            return maxBackoffNanos;
+        }
+        return Math.min(initialBackoffNanos << restartCount, maxBackoffNanos);
+    }
+
+    private int[] allSlots() {
+        final int[] slots = new int[children.length];
+        for (int i = 0; i < slots.length; ++i) {
+            slots[i] = i;
+        }
+        return slots;
+    }
+
+    /**
+     * Interrupts the given tasks, and returns a future that completes when
+     * they all end, whether normally or not.
+     *
+     * @param tasks Tasks to stop.
+     * @return A future that completes when all tasks end.
+     */
+    private static CompletableFuture<Void> stopTasksAsync(final List<GTask> tasks) {
+        final CompletableFuture<?>[] ended = new CompletableFuture<?>[tasks.size()];
+        for (int i = 0; i < ended.length; ++i) {
+            final GTask task = tasks.get(i);
+            // A finished task has given its thread back, so it must not be interrupted.
+            if (!task.isDone()) {
+                // A task can only be interrupted once it has started.
+                task.getStartedFuture().thenRun(task::interrupt);
+            }
+            ended[i] = task.getCompletion().handle((result, throwable) -> null);
+        }
+        return CompletableFuture.allOf(ended);
+    }
+
+    private static void stopTasks(final List<GTask> tasks) {
+        final CompletableFuture<Void> ended = stopTasksAsync(tasks);
+        boolean wasInterrupted = false;
+        while (true) {
+            try {
+                ended.get();
+                break;
+            } catch (final InterruptedException e) {
+                wasInterrupted = true;
+            } catch (final Exception e) {
+                break;
+            }
+        }
+        if (wasInterrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * The current task in a child slot.
+     */
+    private static final class Child {
+
+        public GTask task = null;
+        // Bumped on every restart, so exits of replaced tasks are ignored.
+        public int generation = 0;
+        public int restartCount = 0;
+    }
+
+    /**
+     * {@code GSupervisor} builder.
+     *
+     * <p>By default, it restarts one for one, backs off from 10ms up to 5
+     * seconds, and allows up to 5 restarts every 10 seconds.
+     */
+    public static final class Builder {
+
+        private final String threadName;
+        private final GRestartStrategy strategy;
+        private final Duration initialBackoff;
+        private final Duration maxBackoff;
+        private final int maxRestarts;
+        private final Duration restartPeriod;
+        private final List<Supplier<? extends GTask>> childFactories;
+
+        private Builder(final String threadName, final GRestartStrategy strategy, final Duration initialBackoff,
+                final Duration maxBackoff, final int maxRestarts, final Duration restartPeriod,
+                final List<Supplier<? extends GTask>> childFactories) {
+            this.threadName = threadName;
+            this.strategy = strategy;
+            this.initialBackoff = initialBackoff;
+            this.maxBackoff = maxBackoff;
+            this.maxRestarts = maxRestarts;
+            this.restartPeriod = restartPeriod;
+            this.childFactories = childFactories;
+        }
+
+        /**
+         * Creates a {@code GSupervisor} builder with default values.
+         */
+        public Builder() {
+            this(null, GRestartStrategy.ONE_FOR_ONE, Duration.ofMillis(10), Duration.ofSeconds(5), 5,
+                    Duration.ofSeconds(10), List.of());
+        }
+
+        /**
+         * Changes the thread name.
+         *
+         * @param threadName Thread name.
+         * @return A new builder with updated values.
+         */
+        public Builder withThreadName(final String threadName) {
+            return new Builder(threadName, strategy, initialBackoff, maxBackoff, maxRestarts, restartPeriod,
+                    childFactories);
+        }
+
+        /**
+         * Changes the restart strategy.
+         *
+         * @param strategy Restart strategy.
+         * @return A new builder with updated values.
+         */
+        public Builder withStrategy(final GRestartStrategy strategy) {
+            return new Builder(threadName, strategy, initialBackoff, maxBackoff, maxRestarts, restartPeriod,
+                    childFactories);
+        }
+
+        /**
+         * Changes the restart backoff. It doubles on every restart within the
+         * restart period, from the initial backoff up to the max backoff.
+         *
+         * @param initialBackoff Delay before the first restart.
+         * @param maxBackoff Maximum delay before a restart.
+         * @return A new builder with updated values.
+         */
+        public Builder withBackoff(final Duration initialBackoff, final Duration maxBackoff) {
+            if (initialBackoff.isNegative() || maxBackoff.compareTo(initialBackoff) < 0) {
+                throw new IllegalArgumentException("Backoff must be positive and max must not be less than initial!");
+            }
+            return new Builder(threadName, strategy, initialBackoff, maxBackoff, maxRestarts, restartPeriod,
+                    childFactories);
+        }
+
+        /**
+         * Changes the maximum restart intensity.
+         *
+         * @param maxRestarts Maximum number of restarts within the period.
+         * @param restartPeriod Period over which restarts are counted.
+         * @return A new builder with updated values.
+         */
+        public Builder withMaxRestarts(final int maxRestarts, final Duration restartPeriod) {
+            if ((maxRestarts < 0) || restartPeriod.isNegative()) {
+                throw new IllegalArgumentException("maxRestarts and restartPeriod can't be negative!");
+            }
+            return new Builder(threadName, strategy, initialBackoff, maxBackoff, maxRestarts, restartPeriod,
+                    childFactories);
+        }
+
+        /**
+         * Adds a child. Children are started in the order they are added.
+         *
+         * @param childFactory Factory that creates a new instance of the child task.
+         * @return A new builder with updated values.
+         */
+        public Builder withChild(final Supplier<? extends GTask> childFactory) {
+            final List<Supplier<? extends GTask>> factories = new ArrayList<>(childFactories);
+            factories.add(childFactory);
+            return new Builder(threadName, strategy, initialBackoff, maxBackoff, maxRestarts, restartPeriod,
+                    List.copyOf(factories));
+        }
+
+        /**
+         * Builds a {@code GSupervisor} ready to be started.
+         *
+         * @return A {@code GSupervisor} ready to be started.
+         */
+        public GSupervisor build() {
+            return new GSupervisor(this);
+        }
+    }
+}
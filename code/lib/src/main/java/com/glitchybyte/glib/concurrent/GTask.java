@@ -3,10 +3,11 @@
 
 package com.glitchybyte.glib.concurrent;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.time.Duration;
-import java.util.concurrent.locks.Condition;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * A single concurrent task that starts in a separate thread and runs until
@@ -20,18 +21,48 @@ import java.util.concurrent.locks.ReentrantLock;
  * implementation when the task is ready to receive inputs (e.g., after
  * acquiring locks). Repeated calls to {@code started} are permitted and will
  * return fast without performing any further synchronization.
+ *
+ * <p>The task lifecycle is a single atomic state field. Checking it never
+ * blocks, and threads waiting on it are only tracked while they wait.
  */
 public abstract class GTask implements Runnable {
 
+    private static final int STARTED = 1;
+    private static final int DONE = 2;
+
+    private static final VarHandle STATE;
+    private static final VarHandle STARTED_WAITERS;
+    private static final VarHandle DONE_WAITERS;
+    private static final VarHandle COMPLETION;
+    private static final VarHandle STARTED_FUTURE;
+
+    static {
+        try {
+            final MethodHandles.Lookup lookup = MethodHandles.lookup();
+            STATE = lookup.findVarHandle(GTask.class, "state", int.class);
+            STARTED_WAITERS = lookup.findVarHandle(GTask.class, "startedWaiters", Waiter.class);
+            DONE_WAITERS = lookup.findVarHandle(GTask.class, "doneWaiters", Waiter.class);
+            COMPLETION = lookup.findVarHandle(GTask.class, "completion", CompletableFuture.class);
+            STARTED_FUTURE = lookup.findVarHandle(GTask.class, "startedFuture", CompletableFuture.class);
+        } catch (final ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     private GTaskRunner taskRunner = null;
-    private Thread taskThread = null;
+    private volatile Thread taskThread = null;
     private final String taskThreadName;
-    private boolean hasStarted = false;
-    private final Lock hasStartedLock = new ReentrantLock();
-    private final Condition hasStartedSignal = hasStartedLock.newCondition();
-    private boolean isDone = false;
-    private final Lock isDoneLock = new ReentrantLock();
-    private final Condition isDoneSignal = isDoneLock.newCondition();
+    @SuppressWarnings("unused") // Accessed through STATE.
+    private volatile int state = 0;
+    @SuppressWarnings("unused") // Accessed through STARTED_WAITERS.
+    private volatile Waiter startedWaiters = null;
+    @SuppressWarnings("unused") // Accessed through DONE_WAITERS.
+    private volatile Waiter doneWaiters = null;
+    private volatile Throwable failure = null;
+    @SuppressWarnings("unused") // Accessed through COMPLETION.
+    private volatile CompletableFuture<Void> completion = null;
+    @SuppressWarnings("unused") // Accessed through STARTED_FUTURE.
+    private volatile CompletableFuture<Void> startedFuture = null;
 
     /**
      * Creates a concurrent task with the given name, or a default name if null.
@@ -89,29 +120,92 @@ public abstract class GTask implements Runnable {
      * <p>Repeated calls to this method are permitted and will return fast.
      */
     protected void started() {
-        hasStartedLock.lock();
-        try {
-            if (hasStarted) {
-                return;
-            }
-            taskThread = Thread.currentThread();
-            hasStarted = true;
-            hasStartedSignal.signalAll();
-        } finally {
-            hasStartedLock.unlock();
+        if ((state & STARTED) != 0) {
+            return;
+        }
+        taskThread = Thread.currentThread();
+        signal(STARTED, STARTED_WAITERS);
+        final CompletableFuture<Void> future = startedFuture;
+        if (future != null) {
+            settleStarted(future);
         }
     }
 
     /**
      * Marks this task done and signals it.
+     *
+     * @param failure Exception that ended the task, or null if it ended normally.
      */
-    void done() {
-        isDoneLock.lock();
-        try {
-            isDone = true;
-            isDoneSignal.signalAll();
-        } finally {
-            isDoneLock.unlock();
+    void done(final Throwable failure) {
+        this.failure = failure;
+        signal(DONE, DONE_WAITERS);
+        final CompletableFuture<Void> future = completion;
+        if (future != null) {
+            settleDone(future);
+        }
+        final CompletableFuture<Void> started = startedFuture;
+        if (started != null) {
+            settleStarted(started);
+        }
+    }
+
+    /**
+     * Returns a future that completes when this task is done.
+     *
+     * <p>The future completes exceptionally with the exception that ended the
+     * task, if any. Completing or canceling the returned future has no effect
+     * on the task.
+     *
+     * @return A future that completes when this task is done.
+     */
+    public CompletableFuture<Void> getCompletion() {
+        CompletableFuture<Void> future = completion;
+        if (future == null) {
+            // Created on first use, as most tasks are never observed this way.
+            final CompletableFuture<Void> created = new CompletableFuture<>();
+            future = COMPLETION.compareAndSet(this, null, created) ? created : completion;
+            if (isDone()) {
+                settleDone(future);
+            }
+        }
+        return future.copy();
+    }
+
+    /**
+     * Returns a future that completes when this task calls {@code started}.
+     *
+     * <p>If the task ends without calling {@code started}, the future
+     * completes exceptionally with an {@link IllegalStateException}.
+     *
+     * @return A future that completes when this task has started.
+     */
+    CompletableFuture<Void> getStartedFuture() {
+        CompletableFuture<Void> future = startedFuture;
+        if (future == null) {
+            final CompletableFuture<Void> created = new CompletableFuture<>();
+            future = STARTED_FUTURE.compareAndSet(this, null, created) ? created : startedFuture;
+            settleStarted(future);
+        }
+        return future;
+    }
+
+    private void settleStarted(final CompletableFuture<Void> future) {
+        final int currentState = state;
+        if ((currentState & STARTED) != 0) {
+            future.complete(null);
+        } else if ((currentState & DONE) != 0) {
+            future.completeExceptionally(
+                    new IllegalStateException("Task ended without calling 'started'.", failure)
+            );
+        }
+    }
+
+    private void settleDone(final CompletableFuture<Void> future) {
+        final Throwable cause = failure;
+        if (cause == null) {
+            future.complete(null);
+        } else {
+            future.completeExceptionally(cause);
         }
     }
 
@@ -121,7 +215,7 @@ public abstract class GTask implements Runnable {
      * @return Whether this task has completed.
      */
     public boolean isDone() {
-        return GLock.lockedResult(isDoneLock, () -> isDone);
+        return (state & DONE) != 0;
     }
 
     /**
@@ -130,13 +224,19 @@ public abstract class GTask implements Runnable {
      * @throws InterruptedException If the wait was interrupted.
      */
     public void awaitDone() throws InterruptedException {
-        GLock.awaitConditionWithTest(isDoneLock, isDoneSignal, () -> isDone);
+        awaitState(DONE, DONE_WAITERS, -1);
     }
 
     /**
      * Interrupts the task.
+     *
+     * <p>Once the task is done, this does nothing, as its thread may be
+     * running other work by then.
      */
     public void interrupt() {
+        if (isDone()) {
+            return;
+        }
         taskThread.interrupt();
     }
 
@@ -151,8 +251,76 @@ public abstract class GTask implements Runnable {
      * @throws InterruptedException If the wait is interrupted.
      */
     void awaitStarted(final Duration timeout) throws InterruptedException {
-        if (!GLock.awaitConditionWithTestAndTimeout(hasStartedLock, hasStartedSignal, () -> hasStarted, timeout)) {
+        if (!awaitState(STARTED, STARTED_WAITERS, Math.max(timeout.toNanos(), 0))) {
             throw new IllegalStateException("Task did not start within the timeout. Did you forget to call 'started'?");
         }
     }
+
+    /**
+     * Sets a state flag and wakes up all threads waiting for it.
+     *
+     * @param flag State flag to set.
+     * @param waiters Handle to the stack of threads waiting for the flag.
+     */
+    private void signal(final int flag, final VarHandle waiters) {
+        STATE.getAndBitwiseOr(this, flag);
+        // Waiters pushed after this swap see the flag before parking.
+        Waiter waiter = (Waiter) waiters.getAndSet(this, null);
+        while (waiter != null) {
+            LockSupport.unpark(waiter.thread);
+            waiter = waiter.next;
+        }
+    }
+
+    /**
+     * Awaits until a state flag is set.
+     *
+     * @param flag State flag to wait for.
+     * @param waiters Handle to the stack of threads waiting for the flag.
+     * @param timeoutNanos Maximum time to wait, in nanoseconds. Negative to wait indefinitely.
+     * @return True if the flag was set, false if the wait timed out.
+     * @throws InterruptedException If the wait was interrupted.
+     */
+    private boolean awaitState(final int flag, final VarHandle waiters, final long timeoutNanos)
+            throws InterruptedException {
+        if ((state & flag) != 0) {
+            return true;
+        }
+        final long deadline = System.nanoTime() + timeoutNanos;
+        final Waiter waiter = new Waiter(Thread.currentThread());
+        Waiter head;
+        do {
+            head = (Waiter) waiters.getVolatile(this);
+            waiter.next = head;
+        } while (!waiters.compareAndSet(this, head, waiter));
+        while ((state & flag) == 0) {
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            if (timeoutNanos < 0) {
+                LockSupport.park(this);
+            } else {
+                final long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                LockSupport.parkNanos(this, remaining);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A thread waiting for a state flag. Abandoned waiters are dropped
+     * along with the rest of the stack when the flag is set.
+     */
+    private static final class Waiter {
+
+        public final Thread thread;
+        public Waiter next = null;
+
+        public Waiter(final Thread thread) {
+            this.thread = thread;
+        }
+    }
 }
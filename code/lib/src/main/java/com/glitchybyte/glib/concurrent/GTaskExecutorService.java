@@ -3,8 +3,13 @@
 
 package com.glitchybyte.glib.concurrent;
 
+import com.glitchybyte.glib.GShutdownMonitor;
+
+import java.time.Duration;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Abstract class for task runner facilities.
@@ -19,6 +24,9 @@ public sealed abstract class GTaskExecutorService<ES extends ExecutorService> im
      */
     protected final ES runner;
 
+    private final AtomicReference<GTaskMetrics> metrics = new AtomicReference<>(null);
+    private final AtomicReference<Runnable> shutdownAction = new AtomicReference<>(null);
+
     /**
      * Creates a task runner with the given {@link ExecutorService}.
      *
@@ -31,16 +39,110 @@ public sealed abstract class GTaskExecutorService<ES extends ExecutorService> im
         this.runner = runner;
     }
 
+    /**
+     * Closes this runner right away.
+     *
+     * <p>Running tasks are interrupted and queued tasks are dropped. Use
+     * {@link #close(Duration)} to let them finish.
+     */
     @Override
     public void close() {
+        final Runnable action = shutdownAction.getAndSet(null);
+        if (action != null) {
+            GShutdownMonitor.removeShutdownAction(action);
+        }
         runner.shutdownNow();
         runner.close();
     }
 
+    /**
+     * Closes this runner gracefully.
+     *
+     * <p>New tasks are rejected right away. Queued and running tasks are
+     * given up to the drain timeout to finish. After that, running tasks are
+     * interrupted and queued tasks are dropped, as with {@link #close()}.
+     *
+     * @param drainTimeout Time to let queued and running tasks finish.
+     * @return True if all tasks finished within the drain timeout.
+     */
+    public boolean close(final Duration drainTimeout) {
+        runner.shutdown();
+        boolean isDrained;
+        try {
+            isDrained = runner.awaitTermination(drainTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (final InterruptedException e) {
+            isDrained = false;
+            Thread.currentThread().interrupt();
+        }
+        close();
+        return isDrained;
+    }
+
+    /**
+     * Closes this runner gracefully when the application is signaled to shut
+     * down.
+     *
+     * <p>Runners are closed in reverse order of registration. Register a
+     * runner after the runners it submits work to, and it will be drained
+     * before them. Closing the runner earlier unregisters it. Calling this
+     * method again replaces the previous registration.
+     *
+     * @param drainTimeout Time to let queued and running tasks finish.
+     * @see GShutdownMonitor#addShutdownAction(Runnable)
+     */
+    public void closeOnShutdown(final Duration drainTimeout) {
+        final Runnable action = () -> close(drainTimeout);
+        final Runnable previous = shutdownAction.getAndSet(action);
+        if (previous != null) {
+            GShutdownMonitor.removeShutdownAction(previous);
+        }
+        GShutdownMonitor.addShutdownAction(action);
+    }
+
+    /**
+     * Enables per-task timing instrumentation for tasks submitted from now on.
+     *
+     * <p>Instrumentation is off by default and costs nothing while off.
+     * Calling this method again keeps the current metrics.
+     *
+     * @return The metrics recorder for this runner.
+     */
+    public GTaskMetrics enableMetrics() {
+        return metrics.updateAndGet(current -> current == null ? new GTaskMetrics() : current);
+    }
+
+    /**
+     * Returns the metrics recorder for this runner, or null if metrics are
+     * not enabled.
+     *
+     * @return The metrics recorder for this runner, or null if metrics are not enabled.
+     */
+    public GTaskMetrics getMetrics() {
+        return metrics.get();
+    }
+
+    /**
+     * Wraps the given {@link Runnable} with timing instrumentation if metrics
+     * are enabled. Otherwise, returns it as is.
+     *
+     * <p>This must be called right before submitting the runnable.
+     *
+     * @param runnable {@link Runnable} to instrument.
+     * @return The instrumented {@link Runnable}, or the same one if metrics are not enabled.
+     */
+    protected Runnable instrument(final Runnable runnable) {
+        final GTaskMetrics currentMetrics = metrics.get();
+        return currentMetrics == null ? runnable : currentMetrics.wrap(runnable);
+    }
+
     /**
      * Creates a wrapper around the given {@link GTask} that sets the thread
      * name, if given, and marks task as done when it's done.
      *
+     * <p>The task is marked done even if it throws. The exception completes
+     * the task's completion future, and is then rethrown so the executor
+     * still reports it.
+     *
      * @param task {@link GTask} to wrap.
      * @return A wrapped {@link GTask} in a {@link Runnable}.
      */
@@ -50,14 +152,19 @@ public sealed abstract class GTaskExecutorService<ES extends ExecutorService> im
             if (threadName != null) {
                 Thread.currentThread().setName(threadName);
             }
-            task.run();
-            task.done();
+            try {
+                task.run();
+            } catch (final Throwable e) {
+                task.done(e);
+                throw e;
+            }
+            task.done(null);
         };
     }
 
     @SuppressWarnings("NullableProblems")
     @Override
     public void execute(final Runnable command) {
-        runner.execute(command);
+        runner.execute(instrument(command));
     }
 }
@@ -0,0 +1,105 @@
+// Copyright 2024 GlitchyByte
+// SPDX-License-Identifier: Apache-2.0
+
+package com.glitchybyte.glib.concurrent;
+
+import com.glitchybyte.glib.GStrings;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Per-task timing instrumentation for a {@link GTaskExecutorService}.
+ *
+ * <p>Records, for every task submitted to the runner, how long it waited in
+ * the queue, how long it ran (wall time), and how much CPU time its thread
+ * consumed while running. A run time much larger than CPU time indicates a
+ * blocking task; a large queue wait indicates an undersized pool.
+ *
+ * <p>All times are in nanoseconds. CPU time is only recorded if the JVM
+ * supports and has enabled thread CPU time measurement.
+ */
+public final class GTaskMetrics {
+
+    private static final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+    private final boolean measureCpuTime;
+    private final GHistogram queueWait = new GHistogram();
+    private final GHistogram runTime = new GHistogram();
+    private final GHistogram cpuTime = new GHistogram();
+
+    /**
+     * Creates an empty task metrics recorder.
+     */
+    public GTaskMetrics() {
+        measureCpuTime = threadBean.isCurrentThreadCpuTimeSupported() && threadBean.isThreadCpuTimeEnabled();
+    }
+
+    /**
+     * Wraps a {@link Runnable} so it records its timings when run.
+     *
+     * <p>Queue wait is measured from the moment this method is called, so
+     * it must be called right before the runnable is submitted.
+     *
+     * @param runnable {@link Runnable} to instrument.
+     * @return An instrumented {@link Runnable}.
+     */
+    Runnable wrap(final Runnable runnable) {
+        final long queuedAt = System.nanoTime();
+        return () -> {
+            final long startedAt = System.nanoTime();
+            queueWait.record(startedAt - queuedAt);
+            final long cpuStartedAt = measureCpuTime ? threadBean.getCurrentThreadCpuTime() : 0;
+            try {
+                runnable.run();
+            } finally {
+                runTime.record(System.nanoTime() - startedAt);
+                if (measureCpuTime) {
+                    cpuTime.record(threadBean.getCurrentThreadCpuTime() - cpuStartedAt);
+                }
+            }
+        };
+    }
+
+    /**
+     * Returns a point in time copy of the recorded metrics.
+     *
+     * @return A point in time copy of the recorded metrics.
+     */
+    public Snapshot snapshot() {
+        return new Snapshot(queueWait.snapshot(), runTime.snapshot(), cpuTime.snapshot());
+    }
+
+    /**
+     * Immutable copy of task metrics.
+     */
+    public static final class Snapshot {
+
+        /**
+         * Time tasks spent queued before starting to run, in nanoseconds.
+         */
+        public final GHistogram.Snapshot queueWait;
+
+        /**
+         * Wall time tasks spent running, in nanoseconds.
+         */
+        public final GHistogram.Snapshot runTime;
+
+        /**
+         * CPU time tasks consumed while running, in nanoseconds.
+         */
+        public final GHistogram.Snapshot cpuTime;
+
+        private Snapshot(final GHistogram.Snapshot queueWait, final GHistogram.Snapshot runTime,
+                final GHistogram.Snapshot cpuTime) {
+            this.queueWait = queueWait;
+            this.runTime = runTime;
+            this.cpuTime = cpuTime;
+        }
+
+        @Override
+        public String toString() {
+            return GStrings.format("queueWait: [%s], runTime: [%s], cpuTime: [%s]", queueWait, runTime, cpuTime);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+// Copyright 2024 GlitchyByte
+// SPDX-License-Identifier: Apache-2.0
+
+package com.glitchybyte.glib.concurrent;
+
+import java.time.Duration;
+
+/**
+ * Priority class of a task submitted to a {@link GTaskRunner}.
+ *
+ * <p>Higher priority tasks jump ahead of queued lower priority tasks, but
+ * only for a bounded time. Each priority has an aging allowance: a queued
+ * task is never passed by a task submitted more than the difference between
+ * their allowances after it. So low priority work can be delayed, but never
+ * starved.
+ */
+public enum GTaskPriority {
+
+    /**
+     * Latency-sensitive work, such as interactive requests.
+     */
+    HIGH(Duration.ZERO),
+
+    /**
+     * Regular work. This is the priority used when none is given.
+     */
+    NORMAL(Duration.ofMillis(100)),
+
+    /**
+     * Bulk background work.
+     */
+    LOW(Duration.ofSeconds(1));
+
+    private final long agingNanos;
+
+    GTaskPriority(final Duration aging) {
+        this.agingNanos = aging.toNanos();
+    }
+
+    /**
+     * Returns the time a task of this priority can be passed by higher
+     * priority tasks, in nanoseconds.
+     *
+     * @return The aging allowance in nanoseconds.
+     */
+    long getAgingNanos() {
+        return agingNanos;
+    }
+}
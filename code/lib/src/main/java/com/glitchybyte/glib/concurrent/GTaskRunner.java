@@ -5,6 +5,7 @@ package com.glitchybyte.glib.concurrent;
 
 import java.time.Duration;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.*;
 
@@ -17,6 +18,11 @@ import java.util.concurrent.*;
  * <p>This runner is also capable of running standalone {@link Runnable}s and
  * {@link Callable}s. This avoids having to create, or keep track of, a separate
  * {@link ExecutorService}. Keep in mind this class uses platform threads.
+ *
+ * <p>Tasks submitted from within a task that has a {@link GDeadline} inherit
+ * that deadline. Submitted runnables and callables run with the
+ * {@link GContext} of the thread that submitted them. Started {@link GTask}s
+ * don't, as they are long-lived and serve work from many contexts.
  */
 public interface GTaskRunner extends Executor {
 
@@ -29,6 +35,39 @@ public interface GTaskRunner extends Executor {
      */
     CompletableFuture<Void> run(final Runnable runnable) throws RejectedExecutionException;
 
+    /**
+     * Submits a {@link Runnable} to execute concurrently with the given priority.
+     *
+     * <p>Higher priority tasks jump ahead of queued lower priority tasks,
+     * within the aging allowance of {@link GTaskPriority}.
+     *
+     * @param runnable A {@link Runnable} to execute.
+     * @param priority Task priority.
+     * @return A {@link CompletableFuture<Void>} representing pending completion of the task.
+     * @throws RejectedExecutionException If the task cannot be scheduled for execution.
+     */
+    CompletableFuture<Void> run(final Runnable runnable, final GTaskPriority priority)
+            throws RejectedExecutionException;
+
+    /**
+     * Submits a {@link Runnable} to execute concurrently with the given deadline.
+     *
+     * <p>If the deadline passes before the task runs, it is skipped. If it
+     * passes while the task is running, the task is interrupted. Either way,
+     * the returned future completes exceptionally with a {@link TimeoutException}.
+     *
+     * <p>The task can read its deadline with {@link GDeadline#current()}, and
+     * tasks it submits inherit it. If the submitting task already has an
+     * earlier deadline, that one is used instead.
+     *
+     * @param runnable A {@link Runnable} to execute.
+     * @param deadline Deadline by which the task must be done.
+     * @return A {@link CompletableFuture<Void>} representing pending completion of the task.
+     * @throws RejectedExecutionException If the task cannot be scheduled for execution.
+     */
+    CompletableFuture<Void> run(final Runnable runnable, final GDeadline deadline)
+            throws RejectedExecutionException;
+
     /**
      * Submits a collection of {@link Runnable} to execute concurrently.
      *
@@ -57,6 +96,41 @@ public interface GTaskRunner extends Executor {
      */
     <V> CompletableFuture<V> call(final Callable<V> callable) throws RejectedExecutionException;
 
+    /**
+     * Submits a {@link Callable} to execute concurrently with the given priority.
+     *
+     * <p>Higher priority tasks jump ahead of queued lower priority tasks,
+     * within the aging allowance of {@link GTaskPriority}.
+     *
+     * @param callable A {@link Callable} to execute.
+     * @param priority Task priority.
+     * @return A {@link CompletableFuture} representing pending completion of the task.
+     * @param <V> Type of task result.
+     * @throws RejectedExecutionException If the task cannot be scheduled for execution.
+     */
+    <V> CompletableFuture<V> call(final Callable<V> callable, final GTaskPriority priority)
+            throws RejectedExecutionException;
+
+    /**
+     * Submits a {@link Callable} to execute concurrently with the given deadline.
+     *
+     * <p>If the deadline passes before the task runs, it is skipped. If it
+     * passes while the task is running, the task is interrupted. Either way,
+     * the returned future completes exceptionally with a {@link TimeoutException}.
+     *
+     * <p>The task can read its deadline with {@link GDeadline#current()}, and
+     * tasks it submits inherit it. If the submitting task already has an
+     * earlier deadline, that one is used instead.
+     *
+     * @param callable A {@link Callable} to execute.
+     * @param deadline Deadline by which the task must be done.
+     * @return A {@link CompletableFuture} representing pending completion of the task.
+     * @param <V> Type of task result.
+     * @throws RejectedExecutionException If the task cannot be scheduled for execution.
+     */
+    <V> CompletableFuture<V> call(final Callable<V> callable, final GDeadline deadline)
+            throws RejectedExecutionException;
+
     /**
      * Submits a collection of {@link Callable} to execute concurrently.
      *
@@ -77,6 +151,38 @@ public interface GTaskRunner extends Executor {
      */
     <V> List<CompletableFuture<V>> callAll(final Callable<V>[] callables) throws RejectedExecutionException;
 
+    /**
+     * Submits a collection of {@link Callable} to execute concurrently, and
+     * returns their futures in completion order.
+     *
+     * <p>The returned iterator blocks on {@code next} until the next task
+     * completes. Every future it yields is already complete, so consumers can
+     * start on the fastest results without waiting for the slowest.
+     *
+     * @param callables A collection of {@link Callable} to execute.
+     * @return An iterator of completed {@link CompletableFuture}s in completion order.
+     * @param <V> Type of task result.
+     * @throws RejectedExecutionException If one of the tasks cannot be scheduled for execution.
+     */
+    <V> Iterator<CompletableFuture<V>> callAllStreaming(final Collection<Callable<V>> callables)
+            throws RejectedExecutionException;
+
+    /**
+     * Submits an array of {@link Callable} to execute concurrently, and
+     * returns their futures in completion order.
+     *
+     * <p>The returned iterator blocks on {@code next} until the next task
+     * completes. Every future it yields is already complete, so consumers can
+     * start on the fastest results without waiting for the slowest.
+     *
+     * @param callables An array of {@link Callable} to execute.
+     * @return An iterator of completed {@link CompletableFuture}s in completion order.
+     * @param <V> Type of task result.
+     * @throws RejectedExecutionException If one of the tasks cannot be scheduled for execution.
+     */
+    <V> Iterator<CompletableFuture<V>> callAllStreaming(final Callable<V>[] callables)
+            throws RejectedExecutionException;
+
     /**
      * Submits a task to execute concurrently.
      *
@@ -111,4 +217,66 @@ public interface GTaskRunner extends Executor {
      * @throws RejectedExecutionException If the task cannot be scheduled for execution.
      */
     <T extends GTask> T start(final T task) throws InterruptedException, RejectedExecutionException;
+
+    /**
+     * Submits a task to execute concurrently, without waiting for it to
+     * start.
+     *
+     * <p>The returned future completes with the task when it calls
+     * {@code started}. It completes exceptionally with an
+     * {@link IllegalStateException} if the task ends without calling
+     * {@code started}, or with a {@link TimeoutException}
+     * if it does not start within the given timeout.
+     *
+     * @param task Task to start.
+     * @param timeout Time given to the task to start.
+     * @return A future that completes with the task when it has started.
+     * @param <T> Task type.
+     * @throws RejectedExecutionException If the task cannot be scheduled for execution.
+     */
+    <T extends GTask> CompletableFuture<T> startAsync(final T task, final Duration timeout)
+            throws RejectedExecutionException;
+
+    /**
+     * Submits a task to execute concurrently, without waiting for it to
+     * start. The task is given 5 seconds to start.
+     *
+     * @param task Task to start.
+     * @return A future that completes with the task when it has started.
+     * @param <T> Task type.
+     * @throws RejectedExecutionException If the task cannot be scheduled for execution.
+     * @see #startAsync(GTask, Duration)
+     */
+    <T extends GTask> CompletableFuture<T> startAsync(final T task) throws RejectedExecutionException;
+
+    /**
+     * Submits all tasks to execute concurrently, and waits once for all of
+     * them to start.
+     *
+     * <p>If any task does not start within the given timeout, an
+     * {@link IllegalStateException} will be raised as this is considered a
+     * bug in the task implementation. Tasks that did start keep running.
+     *
+     * @param tasks Tasks to start.
+     * @param timeout Time given to the tasks to start.
+     * @return The started tasks, in the given order.
+     * @param <T> Task type.
+     * @throws InterruptedException If the thread is interrupted while waiting for the tasks to start.
+     * @throws RejectedExecutionException If one of the tasks cannot be scheduled for execution.
+     */
+    <T extends GTask> List<T> startAll(final Collection<T> tasks, final Duration timeout)
+            throws InterruptedException, RejectedExecutionException;
+
+    /**
+     * Submits all tasks to execute concurrently, and waits once for all of
+     * them to start. Tasks are given 5 seconds to start.
+     *
+     * @param tasks Tasks to start.
+     * @return The started tasks, in the given order.
+     * @param <T> Task type.
+     * @throws InterruptedException If the thread is interrupted while waiting for the tasks to start.
+     * @throws RejectedExecutionException If one of the tasks cannot be scheduled for execution.
+     * @see #startAll(Collection, Duration)
+     */
+    <T extends GTask> List<T> startAll(final Collection<T> tasks) throws InterruptedException, RejectedExecutionException;
 }
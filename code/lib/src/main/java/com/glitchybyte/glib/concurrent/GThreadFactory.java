@@ -7,35 +7,235 @@ import com.glitchybyte.glib.GStrings;
 
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 /**
  * Thread factory for {@link GTaskExecutorService}.
  *
- * <p>Produces platform threads.
+ * <p>Produces platform threads named {@code Task-x|y}, where x identifies
+ * the factory and y the thread. Use a {@link Builder} to name the pool and
+ * configure its threads.
  */
 public final class GThreadFactory implements ThreadFactory {
 
-    private static final String NAME_TEMPLATE = "Task-%s|%s";
+    private static final String NAME_TEMPLATE = "%s-%s|%s";
     private static final AtomicLong factoryCount = new AtomicLong(0);
 
     private final long factoryId = factoryCount.getAndIncrement();
     private final AtomicLong threadCount = new AtomicLong(0);
-    private final Thread.Builder.OfPlatform builder;
+    private final String namePrefix;
+    private final Integer priority;
+    private final Boolean isDaemon;
+    private final long stackSize;
+    private final Thread.UncaughtExceptionHandler uncaughtExceptionHandler;
+    private final ThreadGroup threadGroup;
+    private final Consumer<Thread> customizer;
+    private final Runnable initializer;
 
     /**
      * Creates the factory.
+     *
+     * <p>Threads inherit their priority, daemon status and thread group from
+     * the thread that creates them.
      */
     public GThreadFactory() {
-        builder = Thread.ofPlatform();
+        this(new Builder());
+    }
+
+    private GThreadFactory(final Builder builder) {
+        namePrefix = builder.namePrefix;
+        priority = builder.priority;
+        isDaemon = builder.isDaemon;
+        stackSize = builder.stackSize;
+        uncaughtExceptionHandler = builder.uncaughtExceptionHandler;
+        threadGroup = builder.threadGroup;
+        customizer = builder.customizer;
+        initializer = builder.initializer;
     }
 
     @SuppressWarnings("NullableProblems")
     @Override
     public Thread newThread(final Runnable runnable) {
         final String name = GStrings.format(NAME_TEMPLATE,
+                namePrefix,
                 Long.toHexString(factoryId),
                 Long.toHexString(threadCount.getAndIncrement())
         );
-        return builder.name(name).unstarted(runnable);
+        // Thread builders aren't thread-safe, so each thread gets its own.
+        final Thread.Builder.OfPlatform builder = Thread.ofPlatform().name(name);
+        if (priority != null) {
+            builder.priority(priority);
+        }
+        if (isDaemon != null) {
+            builder.daemon(isDaemon);
+        }
+        if (stackSize > 0) {
+            builder.stackSize(stackSize);
+        }
+        if (uncaughtExceptionHandler != null) {
+            builder.uncaughtExceptionHandler(uncaughtExceptionHandler);
+        }
+        if (threadGroup != null) {
+            builder.group(threadGroup);
+        }
+        final Thread thread = builder.unstarted(initializer == null ? runnable : () -> {
+            initializer.run();
+            runnable.run();
+        });
+        if (customizer != null) {
+            customizer.accept(thread);
+        }
+        return thread;
+    }
+
+    /**
+     * {@code GThreadFactory} builder.
+     *
+     * <p>By default, threads are named {@code Task-x|y}, and inherit their
+     * priority, daemon status and thread group from the thread that creates
+     * them.
+     */
+    public static final class Builder {
+
+        private final String namePrefix;
+        private final Integer priority;
+        private final Boolean isDaemon;
+        private final long stackSize;
+        private final Thread.UncaughtExceptionHandler uncaughtExceptionHandler;
+        private final ThreadGroup threadGroup;
+        private final Consumer<Thread> customizer;
+        private final Runnable initializer;
+
+        private Builder(final String namePrefix, final Integer priority, final Boolean isDaemon,
+                final long stackSize, final Thread.UncaughtExceptionHandler uncaughtExceptionHandler,
+                final ThreadGroup threadGroup, final Consumer<Thread> customizer, final Runnable initializer) {
+            this.namePrefix = namePrefix;
+            this.priority = priority;
+            this.isDaemon = isDaemon;
+            this.stackSize = stackSize;
+            this.uncaughtExceptionHandler = uncaughtExceptionHandler;
+            this.threadGroup = threadGroup;
+            this.customizer = customizer;
+            this.initializer = initializer;
+        }
+
+        /**
+         * Creates a {@code GThreadFactory} builder with default values.
+         */
+        public Builder() {
+            this("Task", null, null, 0, null, null, null, null);
+        }
+
+        /**
+         * Changes the thread name prefix. Threads are named
+         * {@code prefix-x|y}, where x identifies the factory and y the
+         * thread.
+         *
+         * @param namePrefix Thread name prefix.
+         * @return A new builder with updated values.
+         */
+        public Builder withNamePrefix(final String namePrefix) {
+            if ((namePrefix == null) || namePrefix.isEmpty()) {
+                throw new IllegalArgumentException("namePrefix can't be empty!");
+            }
+            return new Builder(namePrefix, priority, isDaemon, stackSize, uncaughtExceptionHandler, threadGroup,
+                    customizer, initializer);
+        }
+
+        /**
+         * Changes the thread priority.
+         *
+         * @param priority Thread priority, between {@link Thread#MIN_PRIORITY} and {@link Thread#MAX_PRIORITY}.
+         * @return A new builder with updated values.
+         */
+        public Builder withPriority(final int priority) {
+            if ((priority < Thread.MIN_PRIORITY) || (priority > Thread.MAX_PRIORITY)) {
+                throw new IllegalArgumentException("priority must be between MIN_PRIORITY and MAX_PRIORITY!");
+            }
+            return new Builder(namePrefix, priority, isDaemon, stackSize, uncaughtExceptionHandler, threadGroup,
+                    customizer, initializer);
+        }
+
+        /**
+         * Changes whether threads are daemon threads.
+         *
+         * @param isDaemon True, if threads should be daemon threads.
+         * @return A new builder with updated values.
+         */
+        public Builder withDaemon(final boolean isDaemon) {
+            return new Builder(namePrefix, priority, isDaemon, stackSize, uncaughtExceptionHandler, threadGroup,
+                    customizer, initializer);
+        }
+
+        /**
+         * Changes the thread stack size. The JVM may round it, or ignore it
+         * on some platforms.
+         *
+         * @param stackSize Stack size in bytes. Zero for the JVM default.
+         * @return A new builder with updated values.
+         */
+        public Builder withStackSize(final long stackSize) {
+            if (stackSize < 0) {
+                throw new IllegalArgumentException("stackSize can't be negative!");
+            }
+            return new Builder(namePrefix, priority, isDaemon, stackSize, uncaughtExceptionHandler, threadGroup,
+                    customizer, initializer);
+        }
+
+        /**
+         * Changes the handler for exceptions that escape a thread.
+         *
+         * @param uncaughtExceptionHandler Uncaught exception handler.
+         * @return A new builder with updated values.
+         */
+        public Builder withUncaughtExceptionHandler(final Thread.UncaughtExceptionHandler uncaughtExceptionHandler) {
+            return new Builder(namePrefix, priority, isDaemon, stackSize, uncaughtExceptionHandler, threadGroup,
+                    customizer, initializer);
+        }
+
+        /**
+         * Changes the thread group.
+         *
+         * @param threadGroup Thread group.
+         * @return A new builder with updated values.
+         */
+        public Builder withThreadGroup(final ThreadGroup threadGroup) {
+            return new Builder(namePrefix, priority, isDaemon, stackSize, uncaughtExceptionHandler, threadGroup,
+                    customizer, initializer);
+        }
+
+        /**
+         * Changes the thread customizer. It's called with every new thread,
+         * before it's started, to apply settings this builder doesn't cover.
+         *
+         * @param customizer Thread customizer.
+         * @return A new builder with updated values.
+         */
+        public Builder withCustomizer(final Consumer<Thread> customizer) {
+            return new Builder(namePrefix, priority, isDaemon, stackSize, uncaughtExceptionHandler, threadGroup,
+                    customizer, initializer);
+        }
+
+        /**
+         * Changes the thread initializer. It runs on every new thread, before
+         * any work, for settings that can only be applied from the thread
+         * itself, like pinning it to a CPU.
+         *
+         * @param initializer Thread initializer.
+         * @return A new builder with updated values.
+         */
+        public Builder withInitializer(final Runnable initializer) {
+            return new Builder(namePrefix, priority, isDaemon, stackSize, uncaughtExceptionHandler, threadGroup,
+                    customizer, initializer);
+        }
+
+        /**
+         * Builds a {@code GThreadFactory}.
+         *
+         * @return A {@code GThreadFactory}.
+         */
+        public GThreadFactory build() {
+            return new GThreadFactory(this);
+        }
     }
 }
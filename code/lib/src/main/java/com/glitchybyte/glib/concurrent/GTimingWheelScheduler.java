@@ -0,0 +1,351 @@
+// Copyright 2024 GlitchyByte
+// SPDX-License-Identifier: Apache-2.0
+
+package com.glitchybyte.glib.concurrent;
+
+import com.glitchybyte.glib.function.GCancelable;
+import com.glitchybyte.glib.log.GLog;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A {@link GTaskScheduler} backed by a hashed timing wheel.
+ *
+ * <p>Schedule and cancel are O(1), which makes this scheduler suited for
+ * very high timer churn, like per-connection idle timeouts that are almost
+ * always canceled before they fire. Canceled timers are unlinked from the
+ * wheel on the next tick. The price is precision: timers fire on
+ * the first tick at or after their deadline, so they can be late by up to
+ * one tick duration.
+ *
+ * <p>A single thread drives the wheel. It never runs the scheduled tasks,
+ * it hands them off to the given {@link GTaskRunner}. If a periodic task is
+ * still running when its next run is due, that run is skipped. If the
+ * runner rejects a task, the rejection is logged and the timer is canceled.
+ */
+public final class GTimingWheelScheduler implements GTaskScheduler, AutoCloseable {
+
+    private static final Duration DEFAULT_TICK_DURATION = Duration.ofMillis(10);
+    private static final int DEFAULT_WHEEL_SIZE = 512;
+
+    private static final int WAITING = 0;
+    private static final int CANCELED = 1;
+    private static final int EXPIRED = 2;
+
+    private final GTaskRunner taskRunner;
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Queue<Timer> pendingTimers = new ConcurrentLinkedQueue<>();
+    private final Queue<Timer> canceledTimers = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingTimerCount = new AtomicInteger(0);
+    private final long startTime = System.nanoTime();
+    private final Thread wheelThread;
+    private volatile boolean isClosed = false;
+    private long tick = 0;
+
+    /**
+     * Creates a timing wheel scheduler.
+     *
+     * <p>The wheel size is rounded up to a power of two. Timers further away
+     * than one full turn of the wheel are still supported; they just stay
+     * in their bucket for more turns.
+     *
+     * @param taskRunner Runner to hand expired timers off to.
+     * @param tickDuration Tick resolution.
+     * @param wheelSize Number of buckets in the wheel.
+     */
+    public GTimingWheelScheduler(final GTaskRunner taskRunner, final Duration tickDuration, final int wheelSize) {
+        if (taskRunner == null) {
+            throw new IllegalArgumentException("Task runner can't be null!");
+        }
+        if (tickDuration.isNegative() || tickDuration.isZero()) {
+            throw new IllegalArgumentException("tickDuration must be positive!");
+        }
+        if (wheelSize < 1 || wheelSize > (1 << 30)) {
+            throw new IllegalArgumentException("wheelSize must be between 1 and 2^30!");
+        }
+        this.taskRunner = taskRunner;
+        tickNanos = tickDuration.toNanos();
+        final int size = Integer.highestOneBit(wheelSize) == wheelSize ? wheelSize : Integer.highestOneBit(wheelSize) << 1;
+        wheel = new Bucket[size];
+        for (int i = 0; i < size; ++i) {
+            wheel[i] = new Bucket();
+        }
+        mask = size - 1;
+        wheelThread = new GThreadFactory().newThread(this::runWheel);
+        wheelThread.start();
+    }
+
+    /**
+     * Creates a timing wheel scheduler with a 10ms tick and 512 buckets.
+     *
+     * @param taskRunner Runner to hand expired timers off to.
+     */
+    public GTimingWheelScheduler(final GTaskRunner taskRunner) {
+        this(taskRunner, DEFAULT_TICK_DURATION, DEFAULT_WHEEL_SIZE);
+    }
+
+    /**
+     * Stops the wheel. Timers not yet fired are dropped.
+     *
+     * <p>The task runner is not closed, as it is not owned by this scheduler.
+     */
+    @Override
+    public void close() {
+        isClosed = true;
+        LockSupport.unpark(wheelThread);
+        try {
+            wheelThread.join();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public GCancelable schedule(final Duration delay, final Runnable runnable) {
+        return addTimer(delay, 0, runnable);
+    }
+
+    @Override
+    public GCancelable scheduleAtFixedRate(final Duration initialDelay, final Duration period, final Runnable runnable) {
+        if (period.isNegative() || period.isZero()) {
+            throw new IllegalArgumentException("period must be positive!");
+        }
+        return addTimer(initialDelay, period.toNanos(), runnable);
+    }
+
+    @Override
+    public GCancelable scheduleWithFixedDelay(final Duration initialDelay, final Duration delay, final Runnable runnable) {
+        if (delay.isNegative() || delay.isZero()) {
+            throw new IllegalArgumentException("delay must be positive!");
+        }
+        return addTimer(initialDelay, -delay.toNanos(), runnable);
+    }
+
+    @Override
+    public int getPendingTimerCount() {
+        return pendingTimerCount.get();
+    }
+
+    @SuppressWarnings("NullableProblems")
+    @Override
+    public void execute(final Runnable command) {
+        taskRunner.execute(command);
+    }
+
+    private Timer addTimer(final Duration delay, final long periodNanos, final Runnable runnable) {
+        if (isClosed) {
+            throw new RejectedExecutionException("Scheduler is closed!");
+        }
+        final Timer timer = new Timer(runnable, periodNanos, elapsedNanos() + Math.max(delay.toNanos(), 0));
+        pendingTimerCount.incrementAndGet();
+        pendingTimers.add(timer);
+        return timer;
+    }
+
+    private long elapsedNanos() {
+        return System.nanoTime() - startTime;
+    }
+
+    private void runWheel() {
+        while (!isClosed) {
+            final long deadline = tickNanos * (tick + 1);
+            if (!awaitElapsed(deadline)) {
+                break;
+            }
+            removeCanceledTimers();
+            transferPendingTimers();
+            expireTimers(wheel[(int) (tick & mask)], deadline);
+            ++tick;
+        }
+    }
+
+    private boolean awaitElapsed(final long deadline) {
+        long remaining = deadline - elapsedNanos();
+        while (remaining > 0) {
+            LockSupport.parkNanos(this, remaining);
+            if (isClosed) {
+                return false;
+            }
+            remaining = deadline - elapsedNanos();
+        }
+        return true;
+    }
+
+    private void removeCanceledTimers() {
+        Timer timer;
+        while ((timer = canceledTimers.poll()) != null) {
+            if (timer.bucket != null) {
+                timer.bucket.remove(timer);
+            }
+        }
+    }
+
+    private void transferPendingTimers() {
+        Timer timer;
+        while ((timer = pendingTimers.poll()) != null) {
+            if (timer.state.get() == WAITING) {
+                placeTimer(timer, tick);
+            }
+        }
+    }
+
+    private void placeTimer(final Timer timer, final long minTick) {
+        // Rounds are counted from the first tick that will visit the timer's bucket.
+        final long calculatedTick = timer.deadline / tickNanos;
+        timer.remainingRounds = (calculatedTick - minTick) / wheel.length;
+        final long targetTick = Math.max(calculatedTick, minTick);
+        wheel[(int) (targetTick & mask)].add(timer);
+    }
+
+    private void expireTimers(final Bucket bucket, final long deadline) {
+        // Timers rescheduled while expiring can land back in this bucket. Stop at the current tail.
+        final Timer last = bucket.tail;
+        Timer timer = bucket.head;
+        while (timer != null) {
+            final Timer next = timer.next;
+            final boolean isLast = timer == last;
+            if (timer.state.get() == CANCELED) {
+                bucket.remove(timer);
+            } else if (timer.remainingRounds <= 0) {
+                bucket.remove(timer);
+                if (timer.deadline <= deadline) {
+                    fire(timer);
+                } else {
+                    placeTimer(timer, tick + 1);
+                }
+            } else {
+                --timer.remainingRounds;
+            }
+            if (isLast) {
+                break;
+            }
+            timer = next;
+        }
+    }
+
+    private void fire(final Timer timer) {
+        if (timer.periodNanos == 0) {
+            if (timer.state.compareAndSet(WAITING, EXPIRED)) {
+                pendingTimerCount.decrementAndGet();
+                handOff(timer.runnable);
+            }
+            return;
+        }
+        if (timer.periodNanos > 0) {
+            // Fixed rate. Reschedule right away, from the previous deadline.
+            timer.deadline += timer.periodNanos;
+            placeTimer(timer, tick + 1);
+        }
+        if (timer.isRunning.compareAndSet(false, true) && !handOff(timer.periodicRun)) {
+            timer.isRunning.set(false);
+            // Unlinked from its bucket on the next tick.
+            timer.cancel();
+        }
+    }
+
+    private boolean handOff(final Runnable runnable) {
+        try {
+            taskRunner.execute(runnable);
+            return true;
+        } catch (final RejectedExecutionException e) {
+            // The runner is closed or saturated. The wheel must keep turning for the other timers.
+            GLog.warning(e);
+            return false;
+        }
+    }
+
+    private void runPeriodic(final Timer timer) {
+        try {
+            timer.runnable.run();
+        } finally {
+            timer.isRunning.set(false);
+            if ((timer.periodNanos < 0) && (timer.state.get() == WAITING) && !isClosed) {
+                // Fixed delay. Reschedule from the end of this run.
+                timer.deadline = elapsedNanos() - timer.periodNanos;
+                pendingTimers.add(timer);
+            }
+        }
+    }
+
+    /**
+     * A scheduled timer. Everything but its state is only touched by the
+     * wheel thread once the timer is queued.
+     */
+    private final class Timer implements GCancelable {
+
+        public final Runnable runnable;
+        public final Runnable periodicRun;
+        // Zero for one-shot, positive for fixed rate, negative for fixed delay.
+        public final long periodNanos;
+        public final AtomicInteger state = new AtomicInteger(WAITING);
+        public final AtomicBoolean isRunning = new AtomicBoolean(false);
+        public long deadline;
+        public long remainingRounds = 0;
+        public Bucket bucket = null;
+        public Timer prev = null;
+        public Timer next = null;
+
+        public Timer(final Runnable runnable, final long periodNanos, final long deadline) {
+            this.runnable = runnable;
+            this.periodNanos = periodNanos;
+            this.deadline = deadline;
+            periodicRun = periodNanos == 0 ? null : () -> runPeriodic(this);
+        }
+
+        @Override
+        public void cancel() {
+            if (state.compareAndSet(WAITING, CANCELED)) {
+                pendingTimerCount.decrementAndGet();
+                canceledTimers.add(this);
+            }
+        }
+    }
+
+    /**
+     * A wheel bucket. A doubly linked list of timers for O(1) removal.
+     */
+    private static final class Bucket {
+
+        public Timer head = null;
+        public Timer tail = null;
+
+        public void add(final Timer timer) {
+            timer.bucket = this;
+            timer.prev = tail;
+            timer.next = null;
+            if (tail == null) {
+                head = timer;
+            } else {
+                tail.next = timer;
+            }
+            tail = timer;
+        }
+
+        public void remove(final Timer timer) {
+            if (timer.bucket != this) {
+                return;
+            }
+            if (timer.prev == null) {
+                head = timer.next;
+            } else {
+                timer.prev.next = timer.next;
+            }
+            if (timer.next == null) {
+                tail = timer.prev;
+            } else {
+                timer.next.prev = timer.prev;
+            }
+            timer.bucket = null;
+            timer.prev = null;
+            timer.next = null;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+// Copyright 2024 GlitchyByte
+// SPDX-License-Identifier: Apache-2.0
+
+package com.glitchybyte.glib.concurrent;
+
+/**
+ * How a thread waits for another thread to make progress, trading CPU for
+ * latency.
+ */
+public enum GWaitStrategy {
+
+    /**
+     * Spins on the CPU. Lowest latency, but burns a core while waiting. Only
+     * for threads pinned to otherwise idle cores.
+     */
+    BUSY_SPIN,
+
+    /**
+     * Yields the CPU between checks. Low latency while other threads can use
+     * the core, but still busy.
+     */
+    YIELD,
+
+    /**
+     * Parks the thread until it is signaled. Uses no CPU while waiting, at
+     * the cost of a wake-up latency. This is the strategy used when none is
+     * given.
+     */
+    PARK
+}
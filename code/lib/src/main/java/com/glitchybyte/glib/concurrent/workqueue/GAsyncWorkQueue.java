@@ -3,6 +3,7 @@
 
 package com.glitchybyte.glib.concurrent.workqueue;
 
+import com.glitchybyte.glib.concurrent.GContext;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.locks.Condition;
@@ -17,16 +18,18 @@ import java.util.function.Consumer;
  *     contention.
  *     <li>Work is serviced separately from the queue, allowing work to be
  *     performed without blocking the queue.
+ *     <li>Each item is worked on with the {@link GContext} of the thread that
+ *     added it.
  * </ul>
  *
  * @param <T> Type of work item.
  */
 public final class GAsyncWorkQueue<T> {
 
-    private final List<T> queue = new LinkedList<>();
+    private final List<Work<T>> queue = new LinkedList<>();
     private final Lock queueLock = new ReentrantLock();
     private final Condition itemQueued = queueLock.newCondition();
-    private final List<T> workItems = new LinkedList<>();
+    private final List<Work<T>> workItems = new LinkedList<>();
     private final Lock workLock = new ReentrantLock();
 
     /**
@@ -47,7 +50,7 @@ public final class GAsyncWorkQueue<T> {
         }
         queueLock.lock();
         try {
-            queue.add(item);
+            queue.add(new Work<>(item, GContext.current()));
             itemQueued.signalAll();
         } finally {
             queueLock.unlock();
@@ -93,10 +96,22 @@ public final class GAsyncWorkQueue<T> {
             if (workItems.isEmpty()) {
                 return;
             }
-            workItems.forEach(itemConsumer);
+            for (final Work<T> work: workItems) {
+                // Bound even when empty, so an item never runs under a context it didn't come with.
+                work.context.run(() -> itemConsumer.accept(work.item));
+            }
             workItems.clear();
         } finally {
             workLock.unlock();
         }
     }
+
+    /**
+     * A work item and the context it was added with.
+     *
+     * @param item Work item.
+     * @param context Context of the thread that added it.
+     * @param <T> Type of work item.
+     */
+    private record Work<T>(T item, GContext context) {}
 }
@@ -4,6 +4,7 @@
 package com.glitchybyte.glib.log;
 
 import com.glitchybyte.glib.GStrings;
+import com.glitchybyte.glib.concurrent.GContext;
 
 import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
@@ -17,7 +18,8 @@ import java.util.logging.SimpleFormatter;
 /**
  * Base log formatter class.
  *
- * <p>Uses a compact time format and shows thread name.
+ * <p>Uses a compact time format and shows thread name, and the
+ * {@link GContext} if there is one.
  * Made to log one-liners (except for exceptions).
  */
 public abstract class GLogFormatter extends SimpleFormatter {
@@ -66,6 +68,7 @@ public abstract class GLogFormatter extends SimpleFormatter {
         final String dateTime = getDateTime(record);
         final String level = getLevel(record);
         final String threadName = Thread.currentThread().getName();
+        final GContext context = GContext.current();
         final String className = getClassName(record);
         final String message = getMessage(record);
         final Throwable throwable = getThrowable(record);
@@ -77,6 +80,10 @@ public abstract class GLogFormatter extends SimpleFormatter {
         sb.append(' ');
         applyThreadName(sb, "[" + threadName + "]");
         sb.append(' ');
+        if (!context.isEmpty()) {
+            applyContext(sb, "{" + context + "}");
+            sb.append(' ');
+        }
         applyClassName(sb, className + ":");
         sb.append(' ');
         applyMessage(sb, message);
@@ -152,6 +159,19 @@ public abstract class GLogFormatter extends SimpleFormatter {
      */
     protected abstract void applyThreadName(final StringBuilder sb, final String value);
 
+    /**
+     * Applies the {@code context} value to the log being built
+     * by the given {@code StringBuilder}.
+     *
+     * <p>Styled as the thread name unless overridden.
+     *
+     * @param sb Log message builder.
+     * @param value Value to apply.
+     */
+    protected void applyContext(final StringBuilder sb, final String value) {
+        applyThreadName(sb, value);
+    }
+
     /**
      * Applies the {@code className} value to the log being built
      * by the given {@code StringBuilder}.
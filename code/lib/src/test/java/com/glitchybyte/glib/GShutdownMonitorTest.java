@@ -0,0 +1,61 @@
+// Copyright 2024 GlitchyByte
+// SPDX-License-Identifier: Apache-2.0
+
+package com.glitchybyte.glib;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GShutdownMonitorTest {
+
+    @Test
+    void actionsRunInReverseOrderOfRegistration() {
+        final GShutdownMonitor.ShutdownActions actions = new GShutdownMonitor.ShutdownActions();
+        final List<String> items = new ArrayList<>();
+        actions.add(() -> items.add("first"));
+        actions.add(() -> items.add("second"));
+        actions.add(() -> items.add("third"));
+        actions.runAll();
+        assertEquals(List.of("third", "second", "first"), items);
+        actions.runAll();
+        assertEquals(3, items.size());
+    }
+
+    @Test
+    void actionRunsRightAwayIfAlreadyShuttingDown() {
+        final GShutdownMonitor.ShutdownActions actions = new GShutdownMonitor.ShutdownActions();
+        final List<String> items = new ArrayList<>();
+        actions.runAll();
+        actions.add(() -> items.add("late"));
+        assertEquals(List.of("late"), items);
+    }
+
+    @Test
+    void removedActionDoesNotRun() {
+        final GShutdownMonitor.ShutdownActions actions = new GShutdownMonitor.ShutdownActions();
+        final List<String> items = new ArrayList<>();
+        final Runnable removed = () -> items.add("removed");
+        actions.add(() -> items.add("kept"));
+        actions.add(removed);
+        assertTrue(actions.remove(removed));
+        assertFalse(actions.remove(removed));
+        actions.runAll();
+        assertEquals(List.of("kept"), items);
+    }
+
+    @Test
+    void failingActionDoesNotStopTheRest() {
+        final GShutdownMonitor.ShutdownActions actions = new GShutdownMonitor.ShutdownActions();
+        final List<String> items = new ArrayList<>();
+        actions.add(() -> items.add("first"));
+        actions.add(() -> {
+            throw new IllegalStateException("failing action");
+        });
+        actions.runAll();
+        assertEquals(List.of("first"), items);
+    }
+}
@@ -0,0 +1,115 @@
+// Copyright 2024 GlitchyByte
+// SPDX-License-Identifier: Apache-2.0
+
+package com.glitchybyte.glib.concurrent;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GAdaptivePoolControllerTest {
+
+    private static final int MIN_THREAD_COUNT = 2;
+    private static final int MAX_THREAD_COUNT = 6;
+
+    /**
+     * Pool whose backlog, activity and throughput are set by the test. It
+     * never runs anything, so resizing it doesn't start threads.
+     */
+    private static final class StubPool extends ThreadPoolExecutor {
+
+        public final BlockingQueue<Runnable> backlog = new LinkedBlockingQueue<>();
+        public volatile long completedTaskCount = 0;
+        public volatile int activeCount = 0;
+
+        public StubPool() {
+            super(MIN_THREAD_COUNT, MAX_THREAD_COUNT, 1, TimeUnit.MINUTES, new LinkedBlockingQueue<>());
+        }
+
+        @Override
+        public BlockingQueue<Runnable> getQueue() {
+            return backlog;
+        }
+
+        @Override
+        public long getCompletedTaskCount() {
+            return completedTaskCount;
+        }
+
+        @Override
+        public int getActiveCount() {
+            return activeCount;
+        }
+    }
+
+    private StubPool pool;
+    private GAdaptivePoolController controller;
+
+    @BeforeEach
+    void setupController() {
+        pool = new StubPool();
+        // The test drives adjustments, so the sampling thread never gets to.
+        controller = new GAdaptivePoolController(pool, MIN_THREAD_COUNT, MAX_THREAD_COUNT, Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void teardownController() {
+        controller.close();
+        pool.shutdownNow();
+    }
+
+    private void runBlockingTask() {
+        controller.wrap(() -> assertDoesNotThrow(() -> Thread.sleep(10))).run();
+    }
+
+    @Test
+    void growsUnderBlockingBacklogUpToMax() {
+        pool.backlog.add(() -> {});
+        pool.activeCount = MIN_THREAD_COUNT;
+        long completed = 100;
+        for (int i = 0; i < 20; ++i) {
+            // Throughput keeps improving, so the controller keeps climbing.
+            completed *= 2;
+            pool.completedTaskCount += completed;
+            runBlockingTask();
+            controller.adjust();
+            assertTrue(pool.getCorePoolSize() <= MAX_THREAD_COUNT);
+        }
+        assertEquals(MAX_THREAD_COUNT, pool.getCorePoolSize());
+    }
+
+    @Test
+    void shrinksBackToMinWhenIdle() {
+        pool.setCorePoolSize(MAX_THREAD_COUNT);
+        pool.activeCount = 0;
+        for (int i = 0; i < 20; ++i) {
+            runBlockingTask();
+            controller.adjust();
+            assertTrue(pool.getCorePoolSize() >= MIN_THREAD_COUNT);
+        }
+        assertEquals(MIN_THREAD_COUNT, pool.getCorePoolSize());
+    }
+
+    @Test
+    void backsOffWhenGrowingHurtsThroughput() {
+        pool.backlog.add(() -> {});
+        pool.activeCount = MIN_THREAD_COUNT;
+        pool.completedTaskCount = 1_000;
+        runBlockingTask();
+        controller.adjust();
+        final int grown = pool.getCorePoolSize();
+        assertEquals(MIN_THREAD_COUNT + 1, grown);
+        // No progress at all since the last sample.
+        runBlockingTask();
+        controller.adjust();
+        assertEquals(grown - 1, pool.getCorePoolSize());
+    }
+}
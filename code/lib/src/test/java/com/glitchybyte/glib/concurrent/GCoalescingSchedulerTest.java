@@ -0,0 +1,124 @@
+// Copyright 2024 GlitchyByte
+// SPDX-License-Identifier: Apache-2.0
+
+package com.glitchybyte.glib.concurrent;
+
+import com.glitchybyte.glib.function.GCancelable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GCoalescingSchedulerTest {
+
+    private GTaskSchedulerService scheduler;
+
+    @BeforeEach
+    void setupScheduler() {
+        scheduler = new GTaskSchedulerService();
+    }
+
+    @AfterEach
+    void teardownScheduler() {
+        scheduler.close();
+        scheduler = null;
+    }
+
+    @Test
+    void coalescesSamePeriod() {
+        final GCoalescingScheduler coalescing = new GCoalescingScheduler(scheduler);
+        final CountDownLatch fired = new CountDownLatch(100);
+        for (int i = 0; i < 100; ++i) {
+            coalescing.scheduleAtFixedRate(Duration.ofMillis(20), fired::countDown);
+        }
+        assertEquals(1, coalescing.getGroupCount());
+        assertEquals(1, scheduler.getPendingTimerCount());
+        assertDoesNotThrow(() -> assertTrue(fired.await(1, TimeUnit.SECONDS)));
+    }
+
+    /**
+     * Scheduler that records the periods of its timers.
+     */
+    private final class PeriodRecordingScheduler implements GTaskScheduler {
+
+        public final List<Duration> periods = new ArrayList<>();
+
+        @Override
+        public void execute(final Runnable command) {
+            scheduler.execute(command);
+        }
+
+        @Override
+        public GCancelable schedule(final Duration delay, final Runnable runnable) {
+            return scheduler.schedule(delay, runnable);
+        }
+
+        @Override
+        public GCancelable scheduleAtFixedRate(final Duration initialDelay, final Duration period, final Runnable runnable) {
+            periods.add(period);
+            return scheduler.scheduleAtFixedRate(initialDelay, period, runnable);
+        }
+
+        @Override
+        public GCancelable scheduleWithFixedDelay(final Duration initialDelay, final Duration delay, final Runnable runnable) {
+            return scheduler.scheduleWithFixedDelay(initialDelay, delay, runnable);
+        }
+    }
+
+    @Test
+    void alignsWithinSlack() {
+        final PeriodRecordingScheduler recording = new PeriodRecordingScheduler();
+        final GCoalescingScheduler coalescing = new GCoalescingScheduler(recording, Duration.ofMillis(10));
+        coalescing.scheduleAtFixedRate(Duration.ofMillis(998), () -> {});
+        coalescing.scheduleAtFixedRate(Duration.ofMillis(1_000), () -> {});
+        coalescing.scheduleAtFixedRate(Duration.ofMillis(1_003), () -> {});
+        coalescing.scheduleAtFixedRate(Duration.ofMillis(2_000), () -> {});
+        assertEquals(2, coalescing.getGroupCount());
+        // Groups keep the period of the task that created them.
+        assertEquals(List.of(Duration.ofMillis(998), Duration.ofMillis(2_000)), recording.periods);
+    }
+
+    @Test
+    void keepsCadenceWithLargeSlack() {
+        final PeriodRecordingScheduler recording = new PeriodRecordingScheduler();
+        final GCoalescingScheduler coalescing = new GCoalescingScheduler(recording, Duration.ofSeconds(1));
+        coalescing.scheduleAtFixedRate(Duration.ofMillis(1_500), () -> {});
+        coalescing.scheduleAtFixedRate(Duration.ofMillis(1), () -> {});
+        // Within the slack of the first group, but closer to the second.
+        coalescing.scheduleAtFixedRate(Duration.ofMillis(700), () -> {});
+        // More than the slack away from every group.
+        coalescing.scheduleAtFixedRate(Duration.ofMillis(2_600), () -> {});
+        assertEquals(List.of(Duration.ofMillis(1_500), Duration.ofMillis(1), Duration.ofMillis(2_600)), recording.periods);
+    }
+
+    @Test
+    void cancelRemovesEmptyGroup() {
+        final GCoalescingScheduler coalescing = new GCoalescingScheduler(scheduler);
+        final GCancelable first = coalescing.scheduleAtFixedRate(Duration.ofSeconds(1), () -> {});
+        final GCancelable second = coalescing.scheduleAtFixedRate(Duration.ofSeconds(1), () -> {});
+        first.cancel();
+        assertEquals(1, coalescing.getGroupCount());
+        second.cancel();
+        second.cancel();
+        assertEquals(0, coalescing.getGroupCount());
+        assertEquals(0, scheduler.getPendingTimerCount());
+    }
+
+    @Test
+    void exceptionDoesNotStopBatch() {
+        final GCoalescingScheduler coalescing = new GCoalescingScheduler(scheduler);
+        final CountDownLatch fired = new CountDownLatch(3);
+        coalescing.scheduleAtFixedRate(Duration.ofMillis(10), () -> {
+            throw new IllegalStateException("boom");
+        });
+        coalescing.scheduleAtFixedRate(Duration.ofMillis(10), fired::countDown);
+        assertDoesNotThrow(() -> assertTrue(fired.await(1, TimeUnit.SECONDS)));
+    }
+}
@@ -0,0 +1,94 @@
+// Copyright 2024 GlitchyByte
+// SPDX-License-Identifier: Apache-2.0
+
+package com.glitchybyte.glib.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GConcurrencyLimiterTest {
+
+    @Test
+    void tryAcquireRespectsLimit() {
+        final GConcurrencyLimiter limiter = new GConcurrencyLimiter.Builder()
+                .withInitialLimit(2)
+                .withLimits(1, 2)
+                .build();
+        final GConcurrencyLimiter.Permit first = limiter.tryAcquire();
+        final GConcurrencyLimiter.Permit second = limiter.tryAcquire();
+        assertNotNull(first);
+        assertNotNull(second);
+        assertNull(limiter.tryAcquire());
+        first.release();
+        first.release();
+        assertEquals(1, limiter.getInFlight());
+        assertNotNull(limiter.tryAcquire());
+    }
+
+    @Test
+    void acquireWaitsForRelease() {
+        final GConcurrencyLimiter limiter = new GConcurrencyLimiter.Builder()
+                .withInitialLimit(1)
+                .withLimits(1, 1)
+                .build();
+        final GConcurrencyLimiter.Permit permit = limiter.tryAcquire();
+        final CompletableFuture<GConcurrencyLimiter.Permit> waiting = limiter.acquire();
+        assertFalse(waiting.isDone());
+        permit.releaseIgnored();
+        assertTrue(waiting.isDone());
+    }
+
+    @Test
+    void backsOffOnDropsAndGrowsWhenHealthy() throws InterruptedException {
+        final GConcurrencyLimiter limiter = new GConcurrencyLimiter.Builder()
+                .withInitialLimit(10)
+                .withLatencyTolerance(10)
+                .build();
+        limiter.tryAcquire().releaseDropped();
+        final int reduced = limiter.getLimit();
+        assertEquals(9, reduced);
+        for (int i = 0; i < 5; ++i) {
+            final List<GConcurrencyLimiter.Permit> permits = new ArrayList<>();
+            GConcurrencyLimiter.Permit permit;
+            while ((permit = limiter.tryAcquire()) != null) {
+                permits.add(permit);
+            }
+            Thread.sleep(2);
+            permits.forEach(GConcurrencyLimiter.Permit::release);
+        }
+        assertTrue(limiter.getLimit() > reduced);
+    }
+
+    @Test
+    void boundsConcurrencyOnTaskRunner() {
+        try (final GTaskRunnerService runner = new GTaskRunnerService()) {
+            final GConcurrencyLimiter limiter = new GConcurrencyLimiter.Builder()
+                    .withInitialLimit(3)
+                    .withLimits(1, 3)
+                    .build();
+            final AtomicInteger running = new AtomicInteger(0);
+            final AtomicInteger maxRunning = new AtomicInteger(0);
+            final List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < 20; ++i) {
+                futures.add(limiter.run(runner, () -> {
+                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        Thread.sleep(10);
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    running.decrementAndGet();
+                }));
+            }
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+            assertTrue(maxRunning.get() <= 3);
+            assertEquals(0, limiter.getInFlight());
+        }
+    }
+}
@@ -0,0 +1,108 @@
+// Copyright 2024 GlitchyByte
+// SPDX-License-Identifier: Apache-2.0
+
+package com.glitchybyte.glib.concurrent;
+
+import com.glitchybyte.glib.concurrent.workqueue.GWorkQueue;
+import com.glitchybyte.glib.concurrent.workqueue.GWorkQueueTask;
+import com.glitchybyte.glib.log.GStandardLogFormatter;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GContextTest {
+
+    @Test
+    void contextsAreImmutable() {
+        final GContext context = GContext.empty().with("requestId", "42");
+        final GContext updated = context.with("traceId", "abc").with("requestId", "43");
+        assertEquals("42", context.get("requestId"));
+        assertEquals("43", updated.get("requestId"));
+        assertEquals(Map.of("requestId", "43", "traceId", "abc"), updated.asMap());
+        assertEquals("requestId=43 traceId=abc", updated.toString());
+        assertTrue(updated.with("requestId", null).with("traceId", null).isEmpty());
+    }
+
+    @Test
+    void runRestoresPreviousContext() {
+        final GContext outer = GContext.empty().with("requestId", "1");
+        final GContext inner = outer.with("requestId", "2");
+        outer.run(() -> {
+            inner.run(() -> assertEquals("2", GContext.current().get("requestId")));
+            assertEquals("1", GContext.current().get("requestId"));
+        });
+        assertTrue(GContext.current().isEmpty());
+    }
+
+    @Test
+    void followsWorkOnTaskRunner() {
+        try (final GTaskRunnerService runner = new GTaskRunnerService(1)) {
+            final GContext context = GContext.empty().with("requestId", "42");
+            final CompletableFuture<String> nested = new CompletableFuture<>();
+            final AtomicReference<CompletableFuture<String>> direct = new AtomicReference<>();
+            context.run(() -> direct.set(runner.call(() -> {
+                runner.run(() -> nested.complete(GContext.current().get("requestId")));
+                return GContext.current().get("requestId");
+            })));
+            assertEquals("42", direct.get().join());
+            assertEquals("42", nested.join());
+            // The worker thread doesn't keep it.
+            assertNull(runner.call(() -> GContext.current().get("requestId")).join());
+        }
+    }
+
+    @Test
+    void followsWorkThroughWorkQueue() {
+        try (final GTaskRunnerService runner = new GTaskRunnerService()) {
+            final AtomicReference<String> seen = new AtomicReference<>();
+            final CountDownLatch processed = new CountDownLatch(1);
+            final GWorkQueueTask<String> queue = new GWorkQueue.Builder<String>()
+                    .withProcessor(item -> {
+                        seen.set(GContext.current().get("requestId"));
+                        processed.countDown();
+                    })
+                    .withParallelProcessing(true)
+                    .build();
+            assertDoesNotThrow(() -> runner.start(queue));
+            GContext.empty().with("requestId", "7").run(() -> queue.addWork("item"));
+            assertDoesNotThrow(() -> processed.await());
+            assertEquals("7", seen.get());
+        }
+    }
+
+    @Test
+    void workQueueItemsDontInheritTheStartersContext() {
+        try (final GTaskRunnerService runner = new GTaskRunnerService()) {
+            final AtomicReference<String> seen = new AtomicReference<>("unset");
+            final CountDownLatch processed = new CountDownLatch(1);
+            final GWorkQueueTask<String> queue = new GWorkQueue.Builder<String>()
+                    .withProcessor(item -> {
+                        seen.set(GContext.current().get("requestId"));
+                        processed.countDown();
+                    })
+                    .withParallelProcessing(true)
+                    .build();
+            GContext.empty().with("requestId", "A").run(() -> assertDoesNotThrow(() -> runner.start(queue)));
+            queue.addWork("item");
+            assertDoesNotThrow(() -> processed.await());
+            assertNull(seen.get());
+        }
+    }
+
+    @Test
+    void logLinesIncludeContext() {
+        final GStandardLogFormatter formatter = new GStandardLogFormatter();
+        final AtomicReference<String> line = new AtomicReference<>();
+        GContext.empty().with("requestId", "42").run(() ->
+                line.set(formatter.format(new LogRecord(Level.INFO, "Hello"))));
+        assertTrue(line.get().contains("{requestId=42}"), line.get());
+        assertFalse(formatter.format(new LogRecord(Level.INFO, "Hello")).contains("{"));
+    }
+}
@@ -0,0 +1,94 @@
+// Copyright 2024 GlitchyByte
+// SPDX-License-Identifier: Apache-2.0
+
+package com.glitchybyte.glib.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GCronExpressionTest {
+
+    private static final ZoneId NEW_YORK = ZoneId.of("America/New_York");
+
+    private static ZonedDateTime next(final String expression, final String after) {
+        return GCronExpression.parse(expression).next(ZonedDateTime.parse(after));
+    }
+
+    @Test
+    void canStep() {
+        assertEquals(ZonedDateTime.parse("2024-03-08T10:15Z"), next("*/15 * * * *", "2024-03-08T10:07:30Z"));
+        assertEquals(ZonedDateTime.parse("2024-03-08T10:00:10Z"), next("*/10 * * * * *", "2024-03-08T10:00:05Z"));
+    }
+
+    @Test
+    void isStrictlyAfter() {
+        assertEquals(ZonedDateTime.parse("2024-03-08T11:00Z"), next("@hourly", "2024-03-08T10:00Z"));
+    }
+
+    @Test
+    void canMatchNamedDaysOfWeek() {
+        assertEquals(ZonedDateTime.parse("2024-03-11T09:00Z"), next("0 9 * * MON-FRI", "2024-03-08T10:00Z"));
+        assertEquals(ZonedDateTime.parse("2024-03-10T00:00Z"), next("0 0 * * 7", "2024-03-08T10:00Z"));
+    }
+
+    @Test
+    void skipsShortMonths() {
+        assertEquals(ZonedDateTime.parse("2024-03-31T00:00Z"), next("0 0 31 * *", "2024-02-01T00:00Z"));
+        assertEquals(ZonedDateTime.parse("2028-02-29T00:00Z"), next("0 0 29 FEB *", "2024-03-01T00:00Z"));
+    }
+
+    @Test
+    void neverFiresOnImpossibleDates() {
+        assertNull(next("0 0 30 2 *", "2024-01-01T00:00Z"));
+    }
+
+    @Test
+    void matchesEitherRestrictedDay() {
+        assertEquals(ZonedDateTime.parse("2024-09-06T00:00Z"), next("0 0 13 * FRI", "2024-09-01T00:00Z"));
+        assertEquals(ZonedDateTime.parse("2024-09-13T00:00Z"), next("0 0 13 * FRI", "2024-09-06T00:00Z"));
+    }
+
+    @Test
+    void stepOverWildcardIsNotRestricted() {
+        // Day 1 on an even day of the week, not either one.
+        assertEquals(ZonedDateTime.parse("2024-09-01T00:00Z"), next("0 0 1 * */2", "2024-08-01T00:00Z"));
+    }
+
+    @Test
+    void firesAtDaylightSavingTransition() {
+        // 02:30 doesn't exist on that day, so it fires when 02:00 jumps to 03:00.
+        final GCronExpression cron = GCronExpression.parse("30 2 * * *");
+        final ZonedDateTime first = cron.next(ZonedDateTime.of(2024, 3, 10, 0, 0, 0, 0, NEW_YORK));
+        assertEquals(ZonedDateTime.of(2024, 3, 10, 3, 0, 0, 0, NEW_YORK), first);
+        assertEquals(ZonedDateTime.of(2024, 3, 11, 2, 30, 0, 0, NEW_YORK), cron.next(first));
+    }
+
+    @Test
+    void firesOnceForSeveralTimesInDaylightSavingGap() {
+        final GCronExpression cron = GCronExpression.parse("*/20 2,3 * * *");
+        final ZonedDateTime first = cron.next(ZonedDateTime.of(2024, 3, 10, 1, 30, 0, 0, NEW_YORK));
+        assertEquals(ZonedDateTime.of(2024, 3, 10, 3, 0, 0, 0, NEW_YORK), first);
+        assertEquals(ZonedDateTime.of(2024, 3, 10, 3, 20, 0, 0, NEW_YORK), cron.next(first));
+    }
+
+    @Test
+    void firesOnceInDaylightSavingOverlap() {
+        final GCronExpression cron = GCronExpression.parse("30 1 * * *");
+        final ZonedDateTime first = cron.next(ZonedDateTime.of(2024, 11, 3, 0, 0, 0, 0, NEW_YORK));
+        assertEquals(ZoneOffset.ofHours(-4), first.getOffset());
+        assertEquals(ZonedDateTime.of(2024, 11, 4, 1, 30, 0, 0, NEW_YORK), cron.next(first));
+    }
+
+    @Test
+    void rejectsInvalidExpressions() {
+        assertThrows(IllegalArgumentException.class, () -> GCronExpression.parse("* * *"));
+        assertThrows(IllegalArgumentException.class, () -> GCronExpression.parse("60 * * * *"));
+        assertThrows(IllegalArgumentException.class, () -> GCronExpression.parse("* * * * FOO"));
+        assertThrows(IllegalArgumentException.class, () -> GCronExpression.parse("5-1 * * * *"));
+    }
+}
@@ -0,0 +1,63 @@
+// Copyright 2024 GlitchyByte
+// SPDX-License-Identifier: Apache-2.0
+
+package com.glitchybyte.glib.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GHistogramTest {
+
+    @Test
+    void emptySnapshot() {
+        final GHistogram.Snapshot snapshot = new GHistogram().snapshot();
+        assertEquals(0, snapshot.count);
+        assertEquals(0, snapshot.min);
+        assertEquals(0, snapshot.max);
+        assertEquals(0, snapshot.valueAtPercentile(99));
+    }
+
+    @Test
+    void smallValuesAreExact() {
+        final GHistogram histogram = new GHistogram();
+        for (int i = 0; i < 8; ++i) {
+            histogram.record(i);
+        }
+        final GHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(8, snapshot.count);
+        assertEquals(0, snapshot.min);
+        assertEquals(7, snapshot.max);
+        assertEquals(3, snapshot.valueAtPercentile(50));
+        assertEquals(7, snapshot.valueAtPercentile(100));
+    }
+
+    @Test
+    void percentilesAreWithinPrecision() {
+        final GHistogram histogram = new GHistogram();
+        for (int i = 1; i <= 10_000; ++i) {
+            histogram.record(i * 1_000L);
+        }
+        final GHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(10_000, snapshot.count);
+        assertEquals(1_000, snapshot.min);
+        assertEquals(10_000_000, snapshot.max);
+        assertEquals(5_000_500, snapshot.mean, 0.1);
+        final long p50 = snapshot.valueAtPercentile(50);
+        assertTrue(p50 >= 5_000_000 && p50 <= 5_000_000 * 1.125);
+        final long p99 = snapshot.valueAtPercentile(99);
+        assertTrue(p99 >= 9_900_000 && p99 <= 10_000_000);
+    }
+
+    @Test
+    void handlesExtremes() {
+        final GHistogram histogram = new GHistogram();
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+        final GHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(0, snapshot.min);
+        assertEquals(Long.MAX_VALUE, snapshot.max);
+        assertEquals(0, snapshot.valueAtPercentile(50));
+        assertEquals(Long.MAX_VALUE, snapshot.valueAtPercentile(100));
+    }
+}
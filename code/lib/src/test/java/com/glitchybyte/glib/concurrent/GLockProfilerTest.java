@@ -0,0 +1,145 @@
+// Copyright 2024 GlitchyByte
+// SPDX-License-Identifier: Apache-2.0
+
+package com.glitchybyte.glib.concurrent;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GLockProfilerTest {
+
+    @BeforeEach
+    void enableProfiler() {
+        GLockProfiler.enable();
+    }
+
+    @AfterEach
+    void disableProfiler() {
+        GLockProfiler.disable();
+    }
+
+    private static GLockProfiler.Snapshot snapshotOf(final String name) {
+        return GLockProfiler.snapshot().stream()
+                .filter(snapshot -> snapshot.name.equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    @Test
+    void canRecordContention() {
+        final Lock lock = GLockProfiler.newLock("test.contended");
+        final List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; ++i) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int j = 0; j < 10; ++j) {
+                    GLock.locked(lock, () -> assertDoesNotThrow(() -> Thread.sleep(1)));
+                }
+            }));
+        }
+        threads.forEach(thread -> assertDoesNotThrow(() -> thread.join()));
+        final GLockProfiler.Snapshot snapshot = snapshotOf("test.contended");
+        assertEquals(40, snapshot.acquisitionCount);
+        assertTrue(snapshot.contendedCount > 0);
+        assertEquals(40, snapshot.holdTime.count);
+        assertTrue(snapshot.holdTime.min >= Duration.ofMillis(1).toNanos());
+        assertFalse(snapshot.worstWaiters.isEmpty());
+    }
+
+    @Test
+    void conditionWaitIsNotHeldTime() {
+        final Lock lock = GLockProfiler.newLock("test.condition");
+        final Condition condition = lock.newCondition();
+        assertDoesNotThrow(() -> GLock.awaitConditionWithTimeout(lock, condition, Duration.ofMillis(50)));
+        final GLockProfiler.Snapshot snapshot = snapshotOf("test.condition");
+        assertEquals(1, snapshot.acquisitionCount);
+        assertTrue(snapshot.holdTime.max < Duration.ofMillis(50).toNanos());
+    }
+
+    @Test
+    void failedTryLockCountsAsContention() {
+        final Lock lock = GLockProfiler.newLock("test.tryLock");
+        final CountDownLatch locked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Thread holder = Thread.ofPlatform().start(() -> GLock.locked(lock, () -> {
+            locked.countDown();
+            assertDoesNotThrow(() -> release.await());
+        }));
+        assertDoesNotThrow(() -> locked.await());
+        assertFalse(lock.tryLock());
+        release.countDown();
+        assertDoesNotThrow(() -> holder.join());
+        final GLockProfiler.Snapshot snapshot = snapshotOf("test.tryLock");
+        assertEquals(1, snapshot.acquisitionCount);
+        assertEquals(1, snapshot.contendedCount);
+        assertEquals(1, snapshot.failedCount);
+    }
+
+    @Test
+    void canRecordReadAndWriteLocks() {
+        final ReadWriteLock lock = GLockProfiler.newReadWriteLock("test.readWrite");
+        final CountDownLatch reading = new CountDownLatch(2);
+        final List<Thread> readers = new ArrayList<>();
+        for (int i = 0; i < 2; ++i) {
+            // Both readers hold the lock at once.
+            readers.add(Thread.ofPlatform().start(() -> GLock.locked(lock.readLock(), () -> {
+                reading.countDown();
+                assertDoesNotThrow(() -> reading.await());
+                assertDoesNotThrow(() -> Thread.sleep(5));
+            })));
+        }
+        readers.forEach(thread -> assertDoesNotThrow(() -> thread.join()));
+        GLock.locked(lock.writeLock(), () -> {});
+        final GLockProfiler.Snapshot read = snapshotOf("test.readWrite.read");
+        assertEquals(2, read.acquisitionCount);
+        assertEquals(2, read.holdTime.count);
+        assertTrue(read.holdTime.min >= Duration.ofMillis(5).toNanos());
+        assertEquals(1, snapshotOf("test.readWrite.write").acquisitionCount);
+    }
+
+    @Test
+    void unlockByNonOwnerKeepsOwnersHold() {
+        final Lock lock = GLockProfiler.newLock("test.nonOwner");
+        lock.lock();
+        final Thread intruder = Thread.ofPlatform().start(
+                () -> assertThrows(IllegalMonitorStateException.class, lock::unlock)
+        );
+        assertDoesNotThrow(() -> intruder.join());
+        lock.unlock();
+        GLock.locked(lock, () -> {});
+        final GLockProfiler.Snapshot snapshot = snapshotOf("test.nonOwner");
+        assertEquals(2, snapshot.acquisitionCount);
+        assertEquals(2, snapshot.holdTime.count);
+    }
+
+    @Test
+    void holdSpanningEnableIsNotRecorded() {
+        GLockProfiler.disable();
+        final Lock lock = GLockProfiler.newLock("test.spanning");
+        lock.lock();
+        GLockProfiler.enable();
+        lock.unlock();
+        GLock.locked(lock, () -> {});
+        final GLockProfiler.Snapshot snapshot = snapshotOf("test.spanning");
+        assertEquals(1, snapshot.acquisitionCount);
+        assertEquals(1, snapshot.holdTime.count);
+    }
+
+    @Test
+    void recordsNothingWhenDisabled() {
+        GLockProfiler.disable();
+        final Lock lock = GLockProfiler.newLock("test.disabled");
+        GLock.locked(lock, () -> {});
+        assertEquals(0, snapshotOf("test.disabled").acquisitionCount);
+    }
+}
@@ -0,0 +1,158 @@
+// Copyright 2024 GlitchyByte
+// SPDX-License-Identifier: Apache-2.0
+
+package com.glitchybyte.glib.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GLockTest {
+
+    private static final class Pair {
+
+        public int a = 0;
+        public int b = 0;
+    }
+
+    private static void runThreads(final int count, final Runnable runnable) {
+        final List<Thread> threads = new ArrayList<>(count);
+        for (int i = 0; i < count; ++i) {
+            threads.add(Thread.ofPlatform().start(runnable));
+        }
+        for (final Thread thread: threads) {
+            assertDoesNotThrow(() -> thread.join());
+        }
+    }
+
+    @Test
+    void optimisticReadIsConsistent() {
+        final StampedLock lock = new StampedLock();
+        final Pair pair = new Pair();
+        final AtomicInteger inconsistentReads = new AtomicInteger(0);
+        runThreads(4, () -> {
+            for (int i = 0; i < 20_000; ++i) {
+                if ((i % 10) == 0) {
+                    GLock.writeLocked(lock, () -> {
+                        ++pair.a;
+                        ++pair.b;
+                    });
+                } else if (GLock.optimisticRead(lock, () -> pair.a - pair.b) != 0) {
+                    inconsistentReads.incrementAndGet();
+                }
+            }
+        });
+        assertEquals(0, inconsistentReads.get());
+        final int a = GLock.optimisticRead(lock, () -> pair.a);
+        assertEquals(8_000, a);
+    }
+
+    @Test
+    void readThenWriteRunsOnlyWhenNeeded() {
+        final StampedLock lock = new StampedLock();
+        final Pair pair = new Pair();
+        final AtomicInteger writes = new AtomicInteger(0);
+        runThreads(4, () -> {
+            for (int i = 0; i < 1_000; ++i) {
+                if (GLock.readThenWriteLocked(lock, () -> pair.a == 0, () -> pair.a = 1)) {
+                    writes.incrementAndGet();
+                }
+            }
+        });
+        assertEquals(1, writes.get());
+        final int a = GLock.writeLockedResult(lock, () -> pair.a);
+        assertEquals(1, a);
+    }
+
+    @Test
+    void canPassContext() {
+        final Lock lock = new ReentrantLock();
+        final Pair pair = new Pair();
+        GLock.locked(lock, pair, p -> ++p.a);
+        GLock.locked(lock, pair, 2, (p, value) -> p.b = value);
+        final int sum = GLock.lockedResult(lock, pair, p -> p.a + p.b);
+        assertEquals(3, sum);
+        final int product = GLock.lockedResult(lock, pair, 10, (p, factor) -> p.a * factor);
+        assertEquals(10, product);
+        final ReentrantReadWriteLock rwLock = new ReentrantReadWriteLock();
+        GLock.writeLocked(rwLock, pair, p -> p.a = 5);
+        final int a = GLock.readLockedResult(rwLock, pair, p -> p.a);
+        assertEquals(5, a);
+    }
+
+    @Test
+    void contextOverloadDoesNotAllocate() {
+        final com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final Lock lock = new ReentrantLock();
+        final Pair pair = new Pair();
+        final int calls = 1_000_000;
+        // Warm up both call sites so allocation isn't from class loading or linking.
+        for (int i = 0; i < calls; ++i) {
+            GLock.locked(lock, pair, p -> ++p.a);
+            GLock.locked(lock, () -> ++pair.b);
+        }
+        final long start = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < calls; ++i) {
+            GLock.locked(lock, pair, p -> ++p.a);
+        }
+        final double contextBytesPerCall = (double) (threads.getCurrentThreadAllocatedBytes() - start) / calls;
+        // The capturing lambda allocates 16 bytes per call unless escape analysis removes it, so it isn't asserted.
+        assertTrue(contextBytesPerCall < 0.1);
+    }
+
+    @Test
+    void timeoutBoundsWaitDespiteSignals() {
+        final Lock lock = new ReentrantLock();
+        final Condition condition = lock.newCondition();
+        final AtomicBoolean isSignaling = new AtomicBoolean(true);
+        final Thread signaler = Thread.ofPlatform().start(() -> {
+            while (isSignaling.get()) {
+                GLock.signalAll(lock, condition);
+                Thread.onSpinWait();
+            }
+        });
+        final Duration timeout = Duration.ofMillis(100);
+        long worstNanos = 0;
+        for (int i = 0; i < 5; ++i) {
+            final long start = System.nanoTime();
+            final boolean result = assertDoesNotThrow(
+                    () -> GLock.awaitConditionWithTestAndTimeout(lock, condition, () -> false, timeout)
+            );
+            worstNanos = Math.max(worstNanos, System.nanoTime() - start);
+            assertFalse(result);
+        }
+        isSignaling.set(false);
+        assertDoesNotThrow(() -> signaler.join());
+        assertTrue(worstNanos >= timeout.toNanos());
+        assertTrue(worstNanos < timeout.multipliedBy(3).toNanos());
+    }
+
+    @Test
+    void awaitReturnsAsSoonAsTestPasses() {
+        final Lock lock = new ReentrantLock();
+        final Condition condition = lock.newCondition();
+        final AtomicBoolean isReady = new AtomicBoolean(false);
+        Thread.ofPlatform().start(() -> {
+            assertDoesNotThrow(() -> Thread.sleep(20));
+            isReady.set(true);
+            GLock.signalAll(lock, condition);
+        });
+        final boolean result = assertDoesNotThrow(
+                () -> GLock.awaitConditionWithTestAndTimeout(lock, condition, isReady::get, Duration.ofSeconds(5))
+        );
+        assertTrue(result);
+    }
+}
@@ -0,0 +1,52 @@
+// Copyright 2024 GlitchyByte
+// SPDX-License-Identifier: Apache-2.0
+
+package com.glitchybyte.glib.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GRateLimiterTest {
+
+    @Test
+    void allowsBurstThenRejects() {
+        final GRateLimiter limiter = new GRateLimiter(1, 3);
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire(2));
+        assertFalse(limiter.tryAcquire());
+    }
+
+    @Test
+    void acquireSpacesOutReservations() {
+        final GRateLimiter limiter = new GRateLimiter(50, 1);
+        final long start = System.nanoTime();
+        final List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < 6; ++i) {
+            futures.add(limiter.acquire());
+        }
+        assertTrue(futures.getFirst().isDone());
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        final long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        // 5 permits beyond the burst at 50 per second.
+        assertTrue(elapsedMillis >= 90, "Elapsed: " + elapsedMillis);
+    }
+
+    @Test
+    void composesWithTaskRunner() {
+        try (final GTaskRunnerService runner = new GTaskRunnerService()) {
+            final GRateLimiter limiter = new GRateLimiter(100);
+            final List<CompletableFuture<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 10; ++i) {
+                final int value = i;
+                futures.add(limiter.call(runner, () -> value * 2));
+            }
+            final int sum = futures.stream().mapToInt(CompletableFuture::join).sum();
+            assertEquals(90, sum);
+        }
+    }
+}
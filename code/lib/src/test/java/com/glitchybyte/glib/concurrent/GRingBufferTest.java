@@ -0,0 +1,106 @@
+// Copyright 2024 GlitchyByte
+// SPDX-License-Identifier: Apache-2.0
+
+package com.glitchybyte.glib.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GRingBufferTest {
+
+    @Test
+    void roundsUpCapacityAndRejectsWhenFull() {
+        final GRingBuffer<Integer> buffer = new GRingBuffer<>(3);
+        assertEquals(4, buffer.capacity());
+        for (int i = 0; i < 4; ++i) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4));
+        assertEquals(4, buffer.size());
+        final int first = buffer.poll();
+        assertEquals(0, first);
+        assertTrue(buffer.offer(4));
+    }
+
+    @Test
+    void drainsInOrderUpToMax() {
+        final GRingBuffer<Integer> buffer = new GRingBuffer<>(8, GRingBuffer.Mode.SPSC, GWaitStrategy.PARK);
+        for (int i = 0; i < 6; ++i) {
+            buffer.offer(i);
+        }
+        final List<Integer> items = new ArrayList<>();
+        assertEquals(4, buffer.drain(items::add, 4));
+        assertEquals(List.of(0, 1, 2, 3), items);
+        assertEquals(2, buffer.drain(items::add, 10));
+        assertTrue(buffer.isEmpty());
+        assertNull(buffer.poll());
+    }
+
+    @Test
+    void manyProducersManyConsumersParking() {
+        assertDeliversEverything(GRingBuffer.Mode.MPMC, GWaitStrategy.PARK, 4, 4);
+    }
+
+    @Test
+    void manyProducersSingleConsumerYielding() {
+        assertDeliversEverything(GRingBuffer.Mode.MPSC, GWaitStrategy.YIELD, 4, 1);
+    }
+
+    @Test
+    void singleProducerSingleConsumerSpinning() {
+        assertDeliversEverything(GRingBuffer.Mode.SPSC, GWaitStrategy.BUSY_SPIN, 1, 1);
+    }
+
+    private static void assertDeliversEverything(final GRingBuffer.Mode mode, final GWaitStrategy waitStrategy,
+            final int producerCount, final int consumerCount) {
+        final int itemsPerProducer = 50_000;
+        final int total = producerCount * itemsPerProducer;
+        // Small, so producers and consumers keep waiting on each other.
+        final GRingBuffer<Long> buffer = new GRingBuffer<>(64, mode, waitStrategy);
+        final AtomicLong consumedCount = new AtomicLong(0);
+        final AtomicLong consumedSum = new AtomicLong(0);
+        final List<Thread> threads = new ArrayList<>();
+        for (int c = 0; c < consumerCount; ++c) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    while (true) {
+                        buffer.takeBatch(item -> {
+                            consumedCount.incrementAndGet();
+                            consumedSum.addAndGet(item);
+                        }, 16);
+                    }
+                } catch (final InterruptedException e) {
+                    // Done.
+                }
+            }));
+        }
+        final List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < producerCount; ++p) {
+            final long base = (long) p * itemsPerProducer;
+            producers.add(Thread.ofPlatform().start(() -> {
+                try {
+                    for (long i = 0; i < itemsPerProducer; ++i) {
+                        buffer.put(base + i + 1);
+                    }
+                } catch (final InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+            }));
+        }
+        producers.forEach(thread -> assertDoesNotThrow(() -> thread.join()));
+        final long deadline = System.currentTimeMillis() + 10_000;
+        while ((consumedCount.get() < total) && (System.currentTimeMillis() < deadline)) {
+            Thread.yield();
+        }
+        threads.forEach(Thread::interrupt);
+        threads.forEach(thread -> assertDoesNotThrow(() -> thread.join()));
+        assertEquals(total, consumedCount.get());
+        assertEquals(((long) total * (total + 1)) / 2, consumedSum.get());
+        assertTrue(buffer.isEmpty());
+    }
+}
@@ -0,0 +1,77 @@
+// Copyright 2024 GlitchyByte
+// SPDX-License-Identifier: Apache-2.0
+
+package com.glitchybyte.glib.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GStripedLockTest {
+
+    @Test
+    void roundsUpStripeCount() {
+        assertEquals(8, new GStripedLock(5).getStripeCount());
+        assertEquals(1, new GStripedLock(1).getStripeCount());
+    }
+
+    @Test
+    void sameKeySameLock() {
+        final GStripedLock stripedLock = new GStripedLock(16);
+        assertSame(stripedLock.getLock("key"), stripedLock.getLock(new String("key")));
+    }
+
+    @Test
+    void multiKeyOperationsDontDeadlock() {
+        final GStripedLock stripedLock = new GStripedLock(4);
+        final Map<Integer, Integer> accounts = new HashMap<>();
+        for (int i = 0; i < 8; ++i) {
+            accounts.put(i, 100);
+        }
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; ++t) {
+            final int offset = t;
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 10_000; ++i) {
+                    // Transfers in opposite directions would deadlock with naive lock ordering.
+                    final int from = (i + offset) % 8;
+                    final int to = (7 * i + offset + 1) % 8;
+                    if (from == to) {
+                        continue;
+                    }
+                    stripedLock.lockedAll(List.of(from, to), () -> {
+                        synchronized (accounts) {
+                            accounts.merge(from, -1, Integer::sum);
+                            accounts.merge(to, 1, Integer::sum);
+                        }
+                    });
+                }
+            }));
+        }
+        threads.forEach(thread -> assertDoesNotThrow(() -> thread.join()));
+        final int total = accounts.values().stream().mapToInt(Integer::intValue).sum();
+        assertEquals(800, total);
+    }
+
+    @Test
+    void canLockPerKey() {
+        final GStripedLock stripedLock = new GStripedLock();
+        final int[] counter = new int[1];
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; ++t) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 10_000; ++i) {
+                    stripedLock.locked("counter", () -> ++counter[0]);
+                }
+            }));
+        }
+        threads.forEach(thread -> assertDoesNotThrow(() -> thread.join()));
+        final int count = stripedLock.readLockedResult("counter", () -> counter[0]);
+        assertEquals(40_000, count);
+    }
+}
@@ -0,0 +1,217 @@
+// Copyright 2024 GlitchyByte
+// SPDX-License-Identifier: Apache-2.0
+
+package com.glitchybyte.glib.concurrent;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GSupervisorTest {
+
+    private GTaskRunnerService runner;
+
+    @BeforeEach
+    void setupRunner() {
+        runner = new GTaskRunnerService();
+    }
+
+    @AfterEach
+    void teardownRunner() {
+        runner.close();
+        runner = null;
+    }
+
+    /**
+     * Fails its first few runs, then runs until interrupted.
+     */
+    private static final class FlakyTask extends GTask {
+
+        private final AtomicInteger runs;
+        private final int failures;
+        private final CountDownLatch steady;
+
+        public FlakyTask(final AtomicInteger runs, final int failures, final CountDownLatch steady) {
+            this.runs = runs;
+            this.failures = failures;
+            this.steady = steady;
+        }
+
+        @Override
+        public void run() {
+            started();
+            if (runs.incrementAndGet() <= failures) {
+                throw new IllegalStateException("flaky");
+            }
+            steady.countDown();
+            try {
+                Thread.sleep(Long.MAX_VALUE);
+            } catch (final InterruptedException e) {
+                // Stopped.
+            }
+        }
+    }
+
+    /**
+     * Finishes right away, and records if it's interrupted after it's done.
+     */
+    private static final class FinishedTask extends GTask {
+
+        private final AtomicBoolean isInterruptedAfterDone;
+
+        public FinishedTask(final AtomicBoolean isInterruptedAfterDone) {
+            this.isInterruptedAfterDone = isInterruptedAfterDone;
+        }
+
+        @Override
+        public void run() {
+            started();
+        }
+
+        @Override
+        public void interrupt() {
+            if (isDone()) {
+                isInterruptedAfterDone.set(true);
+            }
+            super.interrupt();
+        }
+    }
+
+    @Test
+    void canRestartOneForOne() {
+        final AtomicInteger flakyRuns = new AtomicInteger(0);
+        final AtomicInteger stableRuns = new AtomicInteger(0);
+        final CountDownLatch steady = new CountDownLatch(2);
+        final GSupervisor supervisor = new GSupervisor.Builder()
+                .withBackoff(Duration.ofMillis(1), Duration.ofMillis(20))
+                .withChild(() -> new FlakyTask(flakyRuns, 2, steady))
+                .withChild(() -> new FlakyTask(stableRuns, 0, steady))
+                .build();
+        assertDoesNotThrow(() -> runner.start(supervisor));
+        assertDoesNotThrow(() -> assertTrue(steady.await(2, TimeUnit.SECONDS)));
+        assertEquals(3, flakyRuns.get());
+        assertEquals(1, stableRuns.get());
+        assertEquals(2, supervisor.getRestartCount());
+        supervisor.interrupt();
+        assertDoesNotThrow(() -> supervisor.getCompletion().get(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void canRestartOneForAll() {
+        final AtomicInteger flakyRuns = new AtomicInteger(0);
+        final AtomicInteger stableRuns = new AtomicInteger(0);
+        final CountDownLatch steady = new CountDownLatch(3);
+        final GSupervisor supervisor = new GSupervisor.Builder()
+                .withStrategy(GRestartStrategy.ONE_FOR_ALL)
+                .withBackoff(Duration.ofMillis(1), Duration.ofMillis(20))
+                .withChild(() -> new FlakyTask(stableRuns, 0, steady))
+                .withChild(() -> new FlakyTask(flakyRuns, 1, steady))
+                .build();
+        assertDoesNotThrow(() -> runner.start(supervisor));
+        assertDoesNotThrow(() -> assertTrue(steady.await(2, TimeUnit.SECONDS)));
+        assertEquals(2, flakyRuns.get());
+        assertEquals(2, stableRuns.get());
+        supervisor.interrupt();
+        assertDoesNotThrow(() -> supervisor.getCompletion().get(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void failsWhenRestartIntensityIsExceeded() {
+        final AtomicInteger runs = new AtomicInteger(0);
+        final GSupervisor supervisor = new GSupervisor.Builder()
+                .withBackoff(Duration.ofMillis(1), Duration.ofMillis(5))
+                .withMaxRestarts(3, Duration.ofSeconds(10))
+                .withChild(() -> new FlakyTask(runs, Integer.MAX_VALUE, new CountDownLatch(1)))
+                .build();
+        assertDoesNotThrow(() -> runner.start(supervisor));
+        final ExecutionException e = assertThrows(ExecutionException.class,
+                () -> supervisor.getCompletion().get(2, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        assertEquals(4, runs.get());
+    }
+
+    @Test
+    void backoffSaturatesInsteadOfOverflowing() {
+        final long initialNanos = Duration.ofDays(365).toNanos();
+        final long maxNanos = Duration.ofDays(3650).toNanos();
+        assertEquals(initialNanos, GSupervisor.backoffNanos(initialNanos, maxNanos, 0));
+        assertEquals(initialNanos * 2, GSupervisor.backoffNanos(initialNanos, maxNanos, 1));
+        long previous = 0;
+        for (int restartCount = 0; restartCount < 100; ++restartCount) {
+            final long backoff = GSupervisor.backoffNanos(initialNanos, maxNanos, restartCount);
+            assertTrue(backoff >= previous);
+            assertTrue(backoff <= maxNanos);
+            previous = backoff;
+        }
+        assertEquals(maxNanos, previous);
+        assertEquals(Long.MAX_VALUE, GSupervisor.backoffNanos(1, Long.MAX_VALUE, 62));
+        assertEquals(0, GSupervisor.backoffNanos(0, 0, 100));
+    }
+
+    @Test
+    void doesNotInterruptFinishedChildren() {
+        final AtomicBoolean isInterruptedAfterDone = new AtomicBoolean(false);
+        final AtomicReference<GTask> firstFinished = new AtomicReference<>(null);
+        final AtomicInteger flakyRuns = new AtomicInteger(0);
+        final CountDownLatch steady = new CountDownLatch(1);
+        final GSupervisor supervisor = new GSupervisor.Builder()
+                .withStrategy(GRestartStrategy.ONE_FOR_ALL)
+                .withBackoff(Duration.ofMillis(1), Duration.ofMillis(20))
+                .withChild(() -> {
+                    final GTask task = new FinishedTask(isInterruptedAfterDone);
+                    firstFinished.compareAndSet(null, task);
+                    return task;
+                })
+                .withChild(() -> new GTask() {
+                    @Override
+                    public void run() {
+                        started();
+                        if (flakyRuns.incrementAndGet() == 1) {
+                            // Fail only once the other child is done.
+                            firstFinished.get().getCompletion().join();
+                            throw new IllegalStateException("flaky");
+                        }
+                        steady.countDown();
+                        try {
+                            Thread.sleep(Long.MAX_VALUE);
+                        } catch (final InterruptedException e) {
+                            // Stopped.
+                        }
+                    }
+                })
+                .build();
+        assertDoesNotThrow(() -> runner.start(supervisor));
+        assertDoesNotThrow(() -> assertTrue(steady.await(2, TimeUnit.SECONDS)));
+        supervisor.interrupt();
+        assertDoesNotThrow(() -> supervisor.getCompletion().get(2, TimeUnit.SECONDS));
+        assertFalse(isInterruptedAfterDone.get());
+    }
+
+    @Test
+    void failsWhenRestartIsRejected() {
+        final AtomicInteger runs = new AtomicInteger(0);
+        final GSupervisor supervisor = new GSupervisor.Builder()
+                .withBackoff(Duration.ofMillis(200), Duration.ofMillis(200))
+                .withChild(() -> new FlakyTask(runs, 1, new CountDownLatch(1)))
+                .build();
+        assertDoesNotThrow(() -> runner.start(supervisor));
+        // Stops accepting work, but lets the supervisor keep running while it drains.
+        final Thread closer = Thread.ofPlatform().start(() -> runner.close(Duration.ofSeconds(5)));
+        final ExecutionException e = assertThrows(ExecutionException.class,
+                () -> supervisor.getCompletion().get(2, TimeUnit.SECONDS));
+        assertInstanceOf(RejectedExecutionException.class, e.getCause().getCause());
+        assertEquals(1, runs.get());
+        assertDoesNotThrow(() -> closer.join());
+    }
+}
@@ -0,0 +1,52 @@
+// Copyright 2024 GlitchyByte
+// SPDX-License-Identifier: Apache-2.0
+
+package com.glitchybyte.glib.concurrent;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GTaskRunnerAdaptiveTest {
+
+    private GTaskRunnerService runner;
+
+    @BeforeEach
+    void setupRunner() {
+        runner = new GTaskRunnerService(1, 16);
+    }
+
+    @AfterEach
+    void teardownRunner() {
+        runner.close();
+        runner = null;
+    }
+
+    @Test
+    void canCallBlockingBacklog() {
+        final List<Callable<Integer>> tasks = new ArrayList<>();
+        for (int i = 0; i < 64; ++i) {
+            final int value = i;
+            tasks.add(() -> {
+                Thread.sleep(20);
+                return value;
+            });
+        }
+        final List<CompletableFuture<Integer>> futures = runner.callAll(tasks);
+        final int sum = futures.stream().mapToInt(CompletableFuture::join).sum();
+        assertEquals((63 * 64) / 2, sum);
+    }
+
+    @Test
+    void rejectsInvalidBounds() {
+        assertThrows(IllegalArgumentException.class, () -> new GTaskRunnerService(0, 4));
+        assertThrows(IllegalArgumentException.class, () -> new GTaskRunnerService(4, 2));
+    }
+}
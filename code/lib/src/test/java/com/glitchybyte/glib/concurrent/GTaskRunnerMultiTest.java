@@ -10,11 +10,15 @@ import org.junit.jupiter.api.Test;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -161,6 +165,82 @@ public class GTaskRunnerMultiTest {
         assertTrue(items.contains("three"));
     }
 
+    @Test
+    void canCallStreaming() {
+        final List<Callable<String>> tasks = List.of(
+                () -> {
+                    Thread.sleep(200);
+                    return "slow";
+                },
+                () -> "fast"
+        );
+        final Iterator<CompletableFuture<String>> results = runner.callAllStreaming(tasks);
+        final List<String> items = new ArrayList<>();
+        while (results.hasNext()) {
+            final CompletableFuture<String> future = results.next();
+            assertTrue(future.isDone());
+            items.add(future.join());
+        }
+        // Results stream in completion order.
+        assertEquals(List.of("fast", "slow"), items);
+    }
+
+    @Test
+    void canCallWithException() {
+        final CompletableFuture<String> future = runner.call(() -> {
+            throw new IllegalArgumentException("boom");
+        });
+        final ExecutionException e = assertThrows(ExecutionException.class, future::get);
+        assertInstanceOf(IllegalArgumentException.class, e.getCause());
+    }
+
+    @Test
+    void canRecordMetrics() {
+        final GTaskMetrics metrics = runner.enableMetrics();
+        final List<Callable<String>> tasks = List.of(
+                () -> {
+                    Thread.sleep(50);
+                    return "one";
+                },
+                () -> "two",
+                () -> "three"
+        );
+        runner.callAll(tasks).forEach(CompletableFuture::join);
+        // Timings are recorded after the future completes, so let the runner finish.
+        runner.close();
+        final GTaskMetrics.Snapshot snapshot = metrics.snapshot();
+        assertEquals(3, snapshot.queueWait.count);
+        assertEquals(3, snapshot.runTime.count);
+        assertTrue(snapshot.runTime.max >= Duration.ofMillis(50).toNanos());
+    }
+
+    @Test
+    void canInterruptAtDeadline() {
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        final CompletableFuture<String> future = runner.call(() -> {
+            try {
+                Thread.sleep(5_000);
+            } catch (final InterruptedException e) {
+                interrupted.countDown();
+            }
+            return "late";
+        }, GDeadline.after(Duration.ofMillis(100)));
+        final ExecutionException e = assertThrows(ExecutionException.class, future::get);
+        assertInstanceOf(TimeoutException.class, e.getCause());
+        assertDoesNotThrow(() -> assertTrue(interrupted.await(1, TimeUnit.SECONDS)));
+    }
+
+    @Test
+    void canInheritDeadline() {
+        final GDeadline deadline = GDeadline.after(Duration.ofSeconds(5));
+        final CompletableFuture<GDeadline> future = runner.call(
+                () -> runner.call(GDeadline::current).join(),
+                deadline
+        );
+        assertSame(deadline, future.join());
+        assertNull(runner.call(GDeadline::current).join());
+    }
+
     private static final class SimpleTask extends GTask {
 
         private final List<String> items;
@@ -204,6 +284,27 @@ public class GTaskRunnerMultiTest {
         }
     }
 
+    private static final class SlowReadyTask extends GTask {
+
+        private final List<String> items;
+
+        public SlowReadyTask(final List<String> items) {
+            this.items = items;
+        }
+
+        @Override
+        public void run() {
+            try {
+                Thread.sleep(1_000);
+            } catch (final InterruptedException e) {
+                // No-op.
+            }
+            // Recorded before signaling, so it's visible once started.
+            items.add("one");
+            started();
+        }
+    }
+
     @Test
     void canTimeoutTask() {
         final List<String> items = Collections.synchronizedList(new ArrayList<>());
@@ -243,4 +344,92 @@ public class GTaskRunnerMultiTest {
         assertTrue(items.contains("interrupted"));
         assertFalse(items.contains("one"));
     }
+
+    @Test
+    void canAwaitDoneFromManyThreads() {
+        final List<String> items = Collections.synchronizedList(new ArrayList<>());
+        final GTask task = new SlowTask(items);
+        assertDoesNotThrow(() -> runner.start(task));
+        final CountDownLatch awaited = new CountDownLatch(8);
+        for (int i = 0; i < 8; ++i) {
+            Thread.ofVirtual().start(() -> {
+                assertDoesNotThrow(task::awaitDone);
+                awaited.countDown();
+            });
+        }
+        assertFalse(task.isDone());
+        assertDoesNotThrow(() -> assertTrue(awaited.await(2, TimeUnit.SECONDS)));
+        assertTrue(task.isDone());
+        assertTrue(items.contains("one"));
+    }
+
+    private static final class FailingTask extends GTask {
+
+        @Override
+        public void run() {
+            started();
+            throw new IllegalStateException("failed");
+        }
+    }
+
+    @Test
+    void canObserveCompletion() {
+        final List<String> items = Collections.synchronizedList(new ArrayList<>());
+        final GTask task = new SlowTask(items);
+        assertDoesNotThrow(() -> runner.start(task));
+        final CompletableFuture<String> pipeline = task.getCompletion().thenApply(ignored -> items.getFirst());
+        assertFalse(pipeline.isDone());
+        assertEquals("one", assertDoesNotThrow(() -> pipeline.get(2, TimeUnit.SECONDS)));
+        assertTrue(task.getCompletion().isDone());
+    }
+
+    @Test
+    void canObserveTaskFailure() {
+        final GTask task = new FailingTask();
+        assertDoesNotThrow(() -> runner.start(task));
+        final ExecutionException e = assertThrows(ExecutionException.class,
+                () -> task.getCompletion().get(2, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        assertTrue(task.isDone());
+    }
+
+    @Test
+    void canStartAllInParallel() {
+        final List<String> items = Collections.synchronizedList(new ArrayList<>());
+        final List<GTask> tasks = new ArrayList<>();
+        for (int i = 0; i < 10; ++i) {
+            tasks.add(new SlowReadyTask(items));
+        }
+        final long start = System.nanoTime();
+        final List<GTask> started = assertDoesNotThrow(() -> runner.startAll(tasks));
+        final long elapsed = System.nanoTime() - start;
+        assertEquals(tasks, started);
+        assertEquals(10, items.size());
+        // Started one by one, this would take 10 seconds.
+        assertTrue(elapsed < Duration.ofSeconds(3).toNanos());
+    }
+
+    @Test
+    void canStartAsync() {
+        final List<String> items = Collections.synchronizedList(new ArrayList<>());
+        final SimpleTask task = new SimpleTask(items);
+        final CompletableFuture<SimpleTask> future = runner.startAsync(task);
+        assertSame(task, assertDoesNotThrow(() -> future.get(2, TimeUnit.SECONDS)));
+        assertTrue(items.contains("one"));
+    }
+
+    private static final class NeverStartedTask extends GTask {
+
+        @Override
+        public void run() {
+            // Forgets to call started.
+        }
+    }
+
+    @Test
+    void startAsyncFailsIfTaskEndsWithoutStarting() {
+        final CompletableFuture<NeverStartedTask> future = runner.startAsync(new NeverStartedTask());
+        final ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(2, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+    }
 }
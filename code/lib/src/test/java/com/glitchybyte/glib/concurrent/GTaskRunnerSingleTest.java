@@ -10,12 +10,17 @@ import org.junit.jupiter.api.Test;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -161,6 +166,116 @@ public class GTaskRunnerSingleTest {
         assertTrue(items.contains("three"));
     }
 
+    @Test
+    void canCallStreaming() {
+        final List<Callable<String>> tasks = List.of(
+                () -> {
+                    Thread.sleep(200);
+                    return "slow";
+                },
+                () -> "fast"
+        );
+        final Iterator<CompletableFuture<String>> results = runner.callAllStreaming(tasks);
+        final List<String> items = new ArrayList<>();
+        while (results.hasNext()) {
+            final CompletableFuture<String> future = results.next();
+            assertTrue(future.isDone());
+            items.add(future.join());
+        }
+        // A single thread completes tasks in submission order.
+        assertEquals(List.of("slow", "fast"), items);
+    }
+
+    @Test
+    void canCallWithException() {
+        final CompletableFuture<String> future = runner.call(() -> {
+            throw new IllegalArgumentException("boom");
+        });
+        final ExecutionException e = assertThrows(ExecutionException.class, future::get);
+        assertInstanceOf(IllegalArgumentException.class, e.getCause());
+    }
+
+    @Test
+    void highPriorityJumpsAhead() {
+        final CountDownLatch gate = new CountDownLatch(1);
+        final List<String> items = Collections.synchronizedList(new ArrayList<>());
+        // Occupy the only thread so the rest queue up.
+        final CompletableFuture<Void> blocker = runner.run(() -> {
+            try {
+                gate.await();
+            } catch (final InterruptedException e) {
+                // No-op.
+            }
+        });
+        final List<CompletableFuture<Void>> futures = List.of(
+                runner.run(() -> items.add("low1"), GTaskPriority.LOW),
+                runner.run(() -> items.add("low2"), GTaskPriority.LOW),
+                runner.run(() -> items.add("normal"), GTaskPriority.NORMAL),
+                runner.run(() -> items.add("high"), GTaskPriority.HIGH)
+        );
+        gate.countDown();
+        blocker.join();
+        futures.forEach(CompletableFuture::join);
+        assertIterableEquals(List.of("high", "normal", "low1", "low2"), items);
+    }
+
+    @Test
+    void skipsExpiredQueuedTask() {
+        final CountDownLatch gate = new CountDownLatch(1);
+        final AtomicBoolean ran = new AtomicBoolean(false);
+        // Occupy the only thread so the next task stays queued past its deadline.
+        final CompletableFuture<Void> blocker = runner.run(() -> {
+            try {
+                gate.await();
+            } catch (final InterruptedException e) {
+                // No-op.
+            }
+        });
+        final CompletableFuture<Void> future = runner.run(() -> ran.set(true), GDeadline.after(Duration.ofMillis(50)));
+        final ExecutionException e = assertThrows(ExecutionException.class, future::get);
+        assertInstanceOf(TimeoutException.class, e.getCause());
+        gate.countDown();
+        blocker.join();
+        runner.call(() -> "flush").join();
+        assertFalse(ran.get());
+    }
+
+    @Test
+    void closeDrainsQueuedTasks() {
+        final AtomicInteger completed = new AtomicInteger(0);
+        for (int i = 0; i < 3; ++i) {
+            runner.run(() -> {
+                try {
+                    Thread.sleep(20);
+                    completed.incrementAndGet();
+                } catch (final InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        assertTrue(runner.close(Duration.ofSeconds(5)));
+        final int count = completed.get();
+        assertEquals(3, count);
+        assertThrows(RejectedExecutionException.class, () -> runner.run(() -> {}));
+    }
+
+    @Test
+    void closeInterruptsAfterDrainTimeout() {
+        final AtomicBoolean wasInterrupted = new AtomicBoolean(false);
+        final CountDownLatch running = new CountDownLatch(1);
+        runner.run(() -> {
+            running.countDown();
+            try {
+                Thread.sleep(Duration.ofMinutes(1));
+            } catch (final InterruptedException e) {
+                wasInterrupted.set(true);
+            }
+        });
+        assertDoesNotThrow(() -> running.await());
+        assertFalse(runner.close(Duration.ofMillis(50)));
+        assertTrue(wasInterrupted.get());
+    }
+
     private static final class SimpleTask extends GTask {
 
         private final List<String> items;
@@ -0,0 +1,138 @@
+// Copyright 2024 GlitchyByte
+// SPDX-License-Identifier: Apache-2.0
+
+package com.glitchybyte.glib.concurrent;
+
+import com.glitchybyte.glib.function.GCancelable;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GTaskSchedulerServiceTest {
+
+    @Test
+    void canScheduleSubMillisecondPeriod() {
+        try (final GTaskSchedulerService scheduler = new GTaskSchedulerService()) {
+            final CountDownLatch fired = new CountDownLatch(20);
+            final GCancelable cancelable = scheduler.scheduleAtFixedRate(Duration.ZERO, Duration.ofNanos(100_000),
+                    fired::countDown);
+            assertDoesNotThrow(() -> assertTrue(fired.await(1, TimeUnit.SECONDS)));
+            cancelable.cancel();
+        }
+    }
+
+    @Test
+    void neverFiresEarlyInHighResolutionMode() {
+        try (final GTaskSchedulerService scheduler = new GTaskSchedulerService(1, Duration.ofMillis(1))) {
+            final CountDownLatch fired = new CountDownLatch(1);
+            final long deadline = System.nanoTime() + Duration.ofMillis(5).toNanos();
+            final long[] firedAt = new long[1];
+            scheduler.schedule(Duration.ofMillis(5), () -> {
+                firedAt[0] = System.nanoTime();
+                fired.countDown();
+            });
+            assertDoesNotThrow(() -> assertTrue(fired.await(1, TimeUnit.SECONDS)));
+            assertTrue((firedAt[0] - deadline) >= 0);
+        }
+    }
+
+    @Test
+    void closeStopsSpinningInHighResolutionMode() {
+        final GTaskSchedulerService scheduler = new GTaskSchedulerService(1, Duration.ofSeconds(10));
+        final AtomicBoolean isFired = new AtomicBoolean(false);
+        // Released right away, so the worker spins for the whole delay.
+        scheduler.schedule(Duration.ofSeconds(5), () -> isFired.set(true));
+        assertDoesNotThrow(() -> Thread.sleep(50));
+        final long start = System.nanoTime();
+        scheduler.close();
+        assertTrue((System.nanoTime() - start) < Duration.ofSeconds(2).toNanos());
+        assertFalse(isFired.get());
+    }
+
+    @Test
+    void canScheduleWithFixedDelayInHighResolutionMode() {
+        try (final GTaskSchedulerService scheduler = new GTaskSchedulerService(1, Duration.ofNanos(50_000))) {
+            final CountDownLatch fired = new CountDownLatch(10);
+            final GCancelable cancelable = scheduler.scheduleWithFixedDelay(Duration.ZERO, Duration.ofNanos(200_000),
+                    fired::countDown);
+            assertDoesNotThrow(() -> assertTrue(fired.await(1, TimeUnit.SECONDS)));
+            cancelable.cancel();
+        }
+    }
+
+    @Test
+    void canceledTimersAreRemoved() {
+        try (final GTaskSchedulerService scheduler = new GTaskSchedulerService()) {
+            final List<GCancelable> cancelables = new ArrayList<>();
+            for (int i = 0; i < 1_000; ++i) {
+                cancelables.add(scheduler.schedule(Duration.ofMinutes(1), () -> {}));
+            }
+            assertEquals(1_000, scheduler.getPendingTimerCount());
+            cancelables.forEach(GCancelable::cancel);
+            assertEquals(0, scheduler.getPendingTimerCount());
+        }
+    }
+
+    @Test
+    void blockingTaskDoesNotDelayOtherTimersOnVirtualThreads() {
+        try (final GTaskSchedulerService scheduler = GTaskSchedulerService.createWithVirtualThreads()) {
+            final CountDownLatch release = new CountDownLatch(1);
+            final CountDownLatch fired = new CountDownLatch(1);
+            scheduler.schedule(Duration.ZERO, () -> assertDoesNotThrow(() -> release.await()));
+            scheduler.schedule(Duration.ofMillis(10), fired::countDown);
+            assertDoesNotThrow(() -> assertTrue(fired.await(1, TimeUnit.SECONDS)));
+            release.countDown();
+        }
+    }
+
+    @Test
+    void canScheduleWithFixedDelayOnTaskRunner() {
+        try (final GTaskRunnerService runner = new GTaskRunnerService(2);
+             final GTaskSchedulerService scheduler = new GTaskSchedulerService(runner)) {
+            final CountDownLatch fired = new CountDownLatch(5);
+            final GCancelable cancelable = scheduler.scheduleWithFixedDelay(Duration.ZERO, Duration.ofMillis(5),
+                    fired::countDown);
+            assertDoesNotThrow(() -> assertTrue(fired.await(1, TimeUnit.SECONDS)));
+            cancelable.cancel();
+        }
+    }
+
+    @Test
+    void gracefulCloseDropsPendingTimers() {
+        final GTaskSchedulerService scheduler = new GTaskSchedulerService();
+        final AtomicBoolean isFired = new AtomicBoolean(false);
+        final CountDownLatch running = new CountDownLatch(1);
+        final AtomicBoolean isRunningDone = new AtomicBoolean(false);
+        scheduler.schedule(Duration.ofMinutes(1), () -> isFired.set(true));
+        scheduler.schedule(Duration.ZERO, () -> {
+            running.countDown();
+            assertDoesNotThrow(() -> Thread.sleep(50));
+            isRunningDone.set(true);
+        });
+        assertDoesNotThrow(() -> running.await());
+        final long start = System.nanoTime();
+        assertTrue(scheduler.close(Duration.ofSeconds(5)));
+        // The running firing was drained, but the pending timer didn't hold the close.
+        assertTrue((System.nanoTime() - start) < Duration.ofSeconds(2).toNanos());
+        assertTrue(isRunningDone.get());
+        assertFalse(isFired.get());
+    }
+
+    @Test
+    void canScheduleCron() {
+        try (final GTaskSchedulerService scheduler = new GTaskSchedulerService()) {
+            final CountDownLatch fired = new CountDownLatch(2);
+            final GCancelable cancelable = scheduler.schedule(GCronExpression.parse("* * * * * *"), fired::countDown);
+            assertDoesNotThrow(() -> assertTrue(fired.await(3, TimeUnit.SECONDS)));
+            cancelable.cancel();
+            assertEquals(0, scheduler.getPendingTimerCount());
+        }
+    }
+}
@@ -0,0 +1,67 @@
+// Copyright 2024 GlitchyByte
+// SPDX-License-Identifier: Apache-2.0
+
+package com.glitchybyte.glib.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GThreadFactoryTest {
+
+    @Test
+    void defaultNamesThreads() {
+        final Thread thread = new GThreadFactory().newThread(() -> {});
+        assertTrue(thread.getName().startsWith("Task-"));
+        assertTrue(thread.getName().endsWith("|0"));
+    }
+
+    @Test
+    void appliesConfiguration() {
+        final ThreadGroup group = new ThreadGroup("pool");
+        final Thread.UncaughtExceptionHandler handler = (t, e) -> {};
+        final AtomicBoolean wasCustomized = new AtomicBoolean(false);
+        final GThreadFactory factory = new GThreadFactory.Builder()
+                .withNamePrefix("Io")
+                .withPriority(Thread.MAX_PRIORITY)
+                .withDaemon(true)
+                .withStackSize(256 * 1024)
+                .withUncaughtExceptionHandler(handler)
+                .withThreadGroup(group)
+                .withCustomizer(thread -> wasCustomized.set(true))
+                .build();
+        final Thread thread = factory.newThread(() -> {});
+        assertTrue(thread.getName().startsWith("Io-"));
+        assertEquals(Thread.MAX_PRIORITY, thread.getPriority());
+        assertTrue(thread.isDaemon());
+        assertSame(handler, thread.getUncaughtExceptionHandler());
+        assertSame(group, thread.getThreadGroup());
+        assertTrue(wasCustomized.get());
+    }
+
+    @Test
+    void initializerRunsOnThreadBeforeWork() {
+        final AtomicReference<Thread> initializedThread = new AtomicReference<>(null);
+        final GThreadFactory factory = new GThreadFactory.Builder()
+                .withInitializer(() -> initializedThread.set(Thread.currentThread()))
+                .build();
+        final CountDownLatch ran = new CountDownLatch(1);
+        try (final GTaskRunnerService runner = new GTaskRunnerService(1, factory)) {
+            runner.run(() -> {
+                if (initializedThread.get() == Thread.currentThread()) {
+                    ran.countDown();
+                }
+            });
+            assertDoesNotThrow(() -> ran.await());
+        }
+    }
+
+    @Test
+    void rejectsInvalidPriority() {
+        assertThrows(IllegalArgumentException.class, () -> new GThreadFactory.Builder().withPriority(11));
+    }
+}
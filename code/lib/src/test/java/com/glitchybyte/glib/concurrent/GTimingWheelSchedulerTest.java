@@ -0,0 +1,126 @@
+// Copyright 2024 GlitchyByte
+// SPDX-License-Identifier: Apache-2.0
+
+package com.glitchybyte.glib.concurrent;
+
+import com.glitchybyte.glib.function.GCancelable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GTimingWheelSchedulerTest {
+
+    private GTaskRunnerService runner;
+    private GTimingWheelScheduler scheduler;
+
+    @BeforeEach
+    void setupScheduler() {
+        runner = new GTaskRunnerService();
+        scheduler = new GTimingWheelScheduler(runner, Duration.ofMillis(1), 8);
+    }
+
+    @AfterEach
+    void teardownScheduler() {
+        scheduler.close();
+        scheduler = null;
+        runner.close();
+        runner = null;
+    }
+
+    @Test
+    void canSchedule() {
+        final CountDownLatch fired = new CountDownLatch(1);
+        final long start = System.nanoTime();
+        scheduler.schedule(Duration.ofMillis(50), fired::countDown);
+        assertDoesNotThrow(() -> assertTrue(fired.await(1, TimeUnit.SECONDS)));
+        assertTrue((System.nanoTime() - start) >= Duration.ofMillis(50).toNanos());
+    }
+
+    @Test
+    void canScheduleBeyondOneTurn() {
+        // 8 buckets of 1ms: 30ms is a few turns of the wheel.
+        final CountDownLatch fired = new CountDownLatch(1);
+        final long start = System.nanoTime();
+        scheduler.schedule(Duration.ofMillis(30), fired::countDown);
+        assertDoesNotThrow(() -> assertTrue(fired.await(1, TimeUnit.SECONDS)));
+        assertTrue((System.nanoTime() - start) >= Duration.ofMillis(30).toNanos());
+    }
+
+    @Test
+    void canCancel() {
+        final AtomicBoolean fired = new AtomicBoolean(false);
+        final GCancelable cancelable = scheduler.schedule(Duration.ofMillis(50), () -> fired.set(true));
+        cancelable.cancel();
+        assertDoesNotThrow(() -> Thread.sleep(150));
+        assertFalse(fired.get());
+    }
+
+    @Test
+    void canScheduleAtFixedRate() {
+        final CountDownLatch fired = new CountDownLatch(5);
+        final GCancelable cancelable = scheduler.scheduleAtFixedRate(Duration.ZERO, Duration.ofMillis(10), fired::countDown);
+        assertDoesNotThrow(() -> assertTrue(fired.await(1, TimeUnit.SECONDS)));
+        cancelable.cancel();
+    }
+
+    @Test
+    void canScheduleWithFixedDelay() {
+        final AtomicInteger count = new AtomicInteger(0);
+        final GCancelable cancelable = scheduler.scheduleWithFixedDelay(Duration.ZERO, Duration.ofMillis(10),
+                count::incrementAndGet);
+        assertDoesNotThrow(() -> Thread.sleep(200));
+        cancelable.cancel();
+        final int countAtCancel = count.get();
+        assertTrue(countAtCancel >= 3);
+        assertDoesNotThrow(() -> Thread.sleep(100));
+        assertTrue(count.get() <= countAtCancel + 1);
+    }
+
+    @Test
+    void canCountPendingTimers() {
+        final GCancelable first = scheduler.schedule(Duration.ofMinutes(1), () -> {});
+        final GCancelable second = scheduler.scheduleAtFixedRate(Duration.ofMinutes(1), Duration.ofMinutes(1), () -> {});
+        assertEquals(2, scheduler.getPendingTimerCount());
+        first.cancel();
+        first.cancel();
+        assertEquals(1, scheduler.getPendingTimerCount());
+        second.cancel();
+        assertEquals(0, scheduler.getPendingTimerCount());
+        final CountDownLatch fired = new CountDownLatch(1);
+        scheduler.schedule(Duration.ofMillis(5), fired::countDown);
+        assertDoesNotThrow(() -> assertTrue(fired.await(1, TimeUnit.SECONDS)));
+        assertEquals(0, scheduler.getPendingTimerCount());
+    }
+
+    @Test
+    void rejectedTimersAreCanceledAndWheelKeepsTurning() {
+        final GTaskRunnerService closedRunner = new GTaskRunnerService(1);
+        closedRunner.close();
+        try (final GTimingWheelScheduler rejectingScheduler =
+                     new GTimingWheelScheduler(closedRunner, Duration.ofMillis(1), 8)) {
+            rejectingScheduler.schedule(Duration.ofMillis(2), () -> {});
+            rejectingScheduler.scheduleAtFixedRate(Duration.ofMillis(2), Duration.ofMillis(1), () -> {});
+            rejectingScheduler.scheduleWithFixedDelay(Duration.ofMillis(2), Duration.ofMillis(1), () -> {});
+            awaitNoPendingTimers(rejectingScheduler);
+            // A new timer is still picked up, so the wheel thread survived the rejections.
+            rejectingScheduler.scheduleAtFixedRate(Duration.ofMillis(2), Duration.ofMillis(1), () -> {});
+            awaitNoPendingTimers(rejectingScheduler);
+        }
+    }
+
+    private static void awaitNoPendingTimers(final GTimingWheelScheduler scheduler) {
+        final long deadline = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+        while ((scheduler.getPendingTimerCount() > 0) && (System.nanoTime() < deadline)) {
+            assertDoesNotThrow(() -> Thread.sleep(1));
+        }
+        assertEquals(0, scheduler.getPendingTimerCount());
+    }
+}